@@ -0,0 +1,113 @@
+package com.espe.edu.ec.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRequest;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.models.Invoice;
+import com.espe.edu.ec.order_ms.dtos.OrderItemRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderRequest;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Address;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.models.OrderItem;
+import com.espe.edu.ec.order_ms.models.Tariff;
+
+// Datos de prueba representativos (Quito) compartidos por los benchmarks
+final class Fixtures {
+
+    private Fixtures() {
+        throw new UnsupportedOperationException("Clase utilitaria");
+    }
+
+    static Address address(double latitude, double longitude) {
+        return new Address("Av. Amazonas N24", "Quito", new Address.Coordinates(longitude, latitude), "Portería");
+    }
+
+    static Tariff tariff() {
+        return Tariff.builder()
+                .id(1L)
+                .zoneId("UIO")
+                .vehicleType(VehicleType.MOTORCYCLE)
+                .baseCost(new BigDecimal("2.5000"))
+                .costPerKm(new BigDecimal("0.7500"))
+                .costPerKg(new BigDecimal("0.1000"))
+                .minDistanceKm(3)
+                .build();
+    }
+
+    static OrderRequest orderRequest(int itemCount) {
+        List<OrderItemRequest> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItemRequest("Paquete " + i, 1 + i, 1.5 + i));
+        }
+        return OrderRequest.builder()
+                .customerId(UUID.randomUUID())
+                .vehicleType(VehicleType.MOTORCYCLE)
+                .pickupAddress(address(-0.1807, -78.4678))
+                .deliveryAddress(address(-0.2298, -78.5249))
+                .items(items)
+                .build();
+    }
+
+    static Order order(int itemCount) {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .customerId(UUID.randomUUID())
+                .driverId(UUID.randomUUID())
+                .vehicleId("PBA-1234")
+                .status(OrderStatus.CREATED)
+                .distanceKm(new BigDecimal("8.37"))
+                .tripFee(new BigDecimal("6.2775"))
+                .serviceFee(new BigDecimal("2.5000"))
+                .totalAmount(new BigDecimal("8.78"))
+                .pickupAddress(address(-0.1807, -78.4678))
+                .deliveryAddress(address(-0.2298, -78.5249))
+                .createdAt(LocalDateTime.of(2025, 12, 1, 10, 30))
+                .updatedAt(LocalDateTime.of(2025, 12, 1, 10, 30))
+                .build();
+
+        List<OrderItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(OrderItem.builder()
+                    .id(UUID.randomUUID())
+                    .order(order)
+                    .description("Paquete " + i)
+                    .quantity(1 + i)
+                    .weightKg(new BigDecimal("1.50"))
+                    .declaredValue(new BigDecimal("25.00"))
+                    .handlingFee(new BigDecimal("0.5000"))
+                    .build());
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    static InvoiceRequest invoiceRequest() {
+        return InvoiceRequest.builder()
+                .orderId(UUID.randomUUID())
+                .customerTaxId("1790012345001")
+                .subtotal(new BigDecimal("7.84"))
+                .taxAmount(new BigDecimal("0.94"))
+                .total(new BigDecimal("8.78"))
+                .build();
+    }
+
+    static Invoice invoice() {
+        return Invoice.builder()
+                .id(UUID.randomUUID())
+                .orderId(UUID.randomUUID())
+                .customerTaxId("1790012345001")
+                .subtotal(new BigDecimal("7.84"))
+                .taxAmount(new BigDecimal("0.94"))
+                .total(new BigDecimal("8.78"))
+                .status(InvoiceStatus.ISSUED)
+                .issuedAt(LocalDateTime.of(2025, 12, 1, 11, 0))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.espe.edu.ec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.espe.edu.ec.order_ms.dtos.OrderRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.mappers.OrderMapper;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * (De)serialización Jackson de OrderRequest/OrderResponse con el mismo JsonMapper
+ * (Jackson 3) que usa Spring MVC en order-ms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"1", "10"})
+    private int itemCount;
+
+    private JsonMapper jsonMapper;
+    private OrderResponse orderResponse;
+    private byte[] orderRequestJson;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().findAndAddModules().build();
+        orderResponse = OrderMapper.entityToOrderResponse(Fixtures.order(itemCount));
+        orderRequestJson = jsonMapper.writeValueAsBytes(Fixtures.orderRequest(itemCount));
+    }
+
+    @Benchmark
+    public byte[] serializeOrderResponse() {
+        return jsonMapper.writeValueAsBytes(orderResponse);
+    }
+
+    @Benchmark
+    public OrderRequest deserializeOrderRequest() {
+        return jsonMapper.readValue(orderRequestJson, OrderRequest.class);
+    }
+}
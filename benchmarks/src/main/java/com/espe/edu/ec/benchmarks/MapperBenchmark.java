@@ -0,0 +1,82 @@
+package com.espe.edu.ec.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRequest;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
+import com.espe.edu.ec.billing_ms.mappers.InvoiceMapper;
+import com.espe.edu.ec.billing_ms.models.Invoice;
+import com.espe.edu.ec.order_ms.dtos.OrderItemResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.mappers.OrderItemMapper;
+import com.espe.edu.ec.order_ms.mappers.OrderMapper;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.models.OrderItem;
+
+/**
+ * Conversiones DTO <-> entidad de OrderMapper, OrderItemMapper e InvoiceMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"1", "10"})
+    private int itemCount;
+
+    private OrderRequest orderRequest;
+    private Order order;
+    private OrderItem orderItem;
+    private InvoiceRequest invoiceRequest;
+    private Invoice invoice;
+
+    @Setup
+    public void setUp() {
+        orderRequest = Fixtures.orderRequest(itemCount);
+        order = Fixtures.order(itemCount);
+        orderItem = order.getItems().get(0);
+        invoiceRequest = Fixtures.invoiceRequest();
+        invoice = Fixtures.invoice();
+    }
+
+    @Benchmark
+    public Order orderRequestToEntity() {
+        return OrderMapper.orderRequestToEntity(orderRequest);
+    }
+
+    @Benchmark
+    public OrderResponse entityToOrderResponse() {
+        return OrderMapper.entityToOrderResponse(order);
+    }
+
+    @Benchmark
+    public OrderItemResponse orderItemToResponse() {
+        return OrderItemMapper.orderItemResponseToEntity(orderItem);
+    }
+
+    @Benchmark
+    public Invoice invoiceRequestToEntity() {
+        return InvoiceMapper.requestToEntity(invoiceRequest);
+    }
+
+    @Benchmark
+    public InvoiceResponse invoiceToResponse() {
+        return InvoiceMapper.entityToResponse(invoice);
+    }
+}
@@ -0,0 +1,79 @@
+package com.espe.edu.ec.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.espe.edu.ec.order_ms.dtos.PriceQuote;
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.mappers.TariffMapper;
+import com.espe.edu.ec.order_ms.models.Address;
+import com.espe.edu.ec.order_ms.models.Tariff;
+import com.espe.edu.ec.order_ms.services.PricingEngine;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
+
+/**
+ * Distancia haversine y tarifa de viaje, tal como se ejecutan en cada creación de pedido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    private Address pickup;
+    private Address delivery;
+    private Tariff tariff;
+    private BigDecimal distance;
+    private TariffRates rates;
+    private PricingEngine pricingEngine;
+
+    @Setup
+    public void setUp() {
+        pickup = Fixtures.address(-0.1807, -78.4678);
+        delivery = Fixtures.address(-0.2298, -78.5249);
+        tariff = Fixtures.tariff();
+        distance = new BigDecimal("8.37");
+        rates = TariffMapper.entityToRates(tariff);
+        pricingEngine = new PricingEngine(false);
+    }
+
+    @Benchmark
+    public double calculateDistance() {
+        return OrderUtils.calculateDistance(pickup, delivery);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTripFee() {
+        return OrderUtils.calculateTripFee(tariff, distance);
+    }
+
+    // Secuencia completa de calculateOrderValues (sin acceso a la caché de tarifas)
+    @Benchmark
+    public BigDecimal quote() {
+        double km = OrderUtils.calculateDistance(pickup, delivery);
+        BigDecimal kmBd = BigDecimal.valueOf(km).setScale(2, RoundingMode.HALF_UP);
+        return OrderUtils.calculateTripFee(tariff, kmBd).add(tariff.getBaseCost());
+    }
+
+    // Misma secuencia con PricingEngine en punto fijo; los BigDecimal se crean solo en la entidad
+    @Benchmark
+    public long fixedPointQuote() {
+        double km = OrderUtils.calculateDistance(pickup, delivery);
+        PriceQuote quote = pricingEngine.quote(km, rates);
+        return quote.totalMicros();
+    }
+}
@@ -0,0 +1,111 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JwtDecoder que recuerda los tokens ya verificados. La firma ES256 y el parseo de
+ * claims se hacen una vez por token; los reintentos del mismo token (cada petición de
+ * una app móvil durante su vigencia) se resuelven con un SHA-256 y una búsqueda.
+ *
+ * La clave es el hash del token, no el token, para no retener credenciales en memoria.
+ * Cada entrada vence en el 'exp' del token; los tokens sin 'exp' y los inválidos no se
+ * guardan. La cantidad de entradas está acotada (LRU).
+ *
+ * order-ms tiene una copia igual, com.espe.edu.ec.order_ms.config.CachingJwtDecoder. Cada servicio
+ * se compila solo desde su carpeta, sin módulo común: un cambio va en las dos.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Jwt> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry) {
+        this(delegate, maxEntries, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, int maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Jwt> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("security.jwt.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("security.jwt.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("security.jwt.cache.size", this, CachingJwtDecoder::size).register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+
+        if (token == null) return delegate.decode(null);
+
+        String key = hash(token);
+        Instant now = clock.instant();
+        lock.lock();
+        try {
+            Jwt cached = entries.get(key);
+            if (cached != null) {
+                if (cached.getExpiresAt().isAfter(now)) {
+                    hits.increment();
+                    return cached;
+                }
+                entries.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.increment();
+        // Fuera del lock: la verificación de firma es lo costoso y no debe serializar las peticiones
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isAfter(now)) {
+            lock.lock();
+            try {
+                entries.put(key, jwt);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return jwt;
+    }
+
+    private int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
+import com.espe.edu.ec.billing_ms.services.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore<InvoiceResponse> invoiceIdempotencyStore(MeterRegistry meterRegistry,
+            @Value("${billing.idempotency.max-entries:50000}") int maxEntries,
+            @Value("${billing.idempotency.ttl:24h}") Duration ttl) {
+        return new IdempotencyStore<>("invoices", meterRegistry, maxEntries, ttl);
+    }
+}
@@ -0,0 +1,22 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import feign.RequestInterceptor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+// Sin @Configuration: solo aplica al cliente Feign de order-ms (OrderEventProducer)
+@Slf4j
+public class OrderClientConfig {
+
+    @Bean
+    public RequestInterceptor orderAuthorizationInterceptor(@Value("${orders.service-token:}") String serviceToken) {
+        // order-ms exige SCOPE_order:view: sin token la réplica de pedidos no avanza
+        if (serviceToken.isBlank())
+            log.warn("orders.service-token vacío: las llamadas a order-ms se rechazarán con 401");
+        return template -> {
+            if (!serviceToken.isBlank())
+                template.header("Authorization", "Bearer " + serviceToken);
+        };
+    }
+}
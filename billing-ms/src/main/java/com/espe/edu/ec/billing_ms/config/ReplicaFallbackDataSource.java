@@ -0,0 +1,59 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origen de las conexiones de solo lectura: la réplica mientras ReplicaLagMonitor la
+ * considere al día, el primario en caso contrario o si la réplica rechaza la conexión.
+ */
+public class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor monitor;
+    private final Counter replicaConnections;
+    private final Counter fallbackConnections;
+
+    public ReplicaFallbackDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.monitor = monitor;
+        this.replicaConnections = Counter.builder("datasource.readonly.connections").tag("target", "replica").register(meterRegistry);
+        this.fallbackConnections = Counter.builder("datasource.readonly.connections").tag("target", "primary").register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionOpener opener) throws SQLException {
+        if (monitor.isAvailable()) {
+            try {
+                Connection connection = opener.open(replica);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnavailable();
+            }
+        }
+        fallbackConnections.increment();
+        return opener.open(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,78 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Mide periódicamente el retraso de la réplica. Si supera maxLag o la réplica no
+ * responde, ReplicaFallbackDataSource envía también las lecturas al primario hasta
+ * la siguiente medición correcta.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Sin WAL pendiente de aplicar la réplica está al día, aunque el primario lleve rato sin escribir.
+    // Una instancia que no es réplica (pg_is_in_recovery() = false) se considera sin retraso.
+    private static final String LAG_QUERY = """
+        SELECT CASE
+                 WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+               END
+        """;
+
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private volatile boolean available;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLag.toMillis() / 1000d;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+            .description("Retraso de replicación medido en la réplica de lectura")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+            .description("1 si las transacciones de solo lectura se envían a la réplica")
+            .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    // Un fallo al abrir conexión no espera a la próxima medición
+    public void markUnavailable() {
+        available = false;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:5s}")
+    public void check() {
+
+        boolean wasAvailable = available;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(LAG_QUERY)) {
+            result.next();
+            lagSeconds = result.getDouble(1);
+            available = lagSeconds <= maxLagSeconds;
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            available = false;
+        }
+
+        if (wasAvailable && !available)
+            log.warn("Réplica de lectura fuera de servicio (retraso {} s); las lecturas van al primario", lagSeconds);
+        else if (!wasAvailable && available)
+            log.info("Réplica de lectura disponible (retraso {} s)", lagSeconds);
+    }
+}
@@ -0,0 +1,88 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.proc.SingleKeyJWSKeySelector;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.FileCopyUtils;
+
+import java.io.InputStreamReader;
+import java.security.KeyFactory;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+@Configuration
+@EnableWebSecurity
+@EnableMethodSecurity 
+public class SecurityConfig {
+
+    @Value("${jwt.public-key-path}")
+    private Resource publicKeyResource;
+
+    @Value("${jwt.cache.max-entries:100000}")
+    private int cacheMaxEntries;
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        // Endpoints públicos (Swagger y Docs)
+                        .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // Salud y scraping de métricas: solo en el puerto de gestión, que Kong no enruta
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        // Cualquier otro endpoint requiere token válido
+                        .anyRequest().authenticated()
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt.decoder(jwtDecoder))
+                )
+                .build();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
+        try {
+            // 1. Leer y limpiar el PEM
+            String keyContent = FileCopyUtils.copyToString(new InputStreamReader(publicKeyResource.getInputStream()));
+            String publicKeyPEM = keyContent
+                    .replace("-----BEGIN PUBLIC KEY-----", "")
+                    .replace("-----END PUBLIC KEY-----", "")
+                    .replaceAll("\\s", "");
+
+            // 2. Generar ECPublicKey
+            byte[] encoded = Base64.getDecoder().decode(publicKeyPEM);
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(encoded);
+            ECPublicKey publicKey = (ECPublicKey) keyFactory.generatePublic(keySpec);
+
+            // 3. Configurar procesador para ES256 (ECDSA)
+            DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+            JWSKeySelector<SecurityContext> jwsKeySelector = 
+                    new SingleKeyJWSKeySelector<>(JWSAlgorithm.ES256, publicKey);
+            jwtProcessor.setJWSKeySelector(jwsKeySelector);
+
+            // 4. Cachear los tokens ya verificados: la firma ECDSA se valida una vez por token
+            return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor), cacheMaxEntries, meterRegistry);
+
+        } catch (Exception e) {
+            throw new IllegalStateException("Error al cargar la llave pública EC", e);
+        }
+    }
+}
\ No newline at end of file
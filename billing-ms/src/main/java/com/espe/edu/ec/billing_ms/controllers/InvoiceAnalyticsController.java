@@ -0,0 +1,50 @@
+package com.espe.edu.ec.billing_ms.controllers;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRollupResponse;
+import com.espe.edu.ec.billing_ms.jobs.InvoiceRollupJob;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.billing_ms.services.InvoiceAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/invoices/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analítica de facturación", description = "Totales facturados por intervalo de tiempo y estado")
+public class InvoiceAnalyticsController {
+
+    private final InvoiceAnalyticsService invoiceAnalyticsService;
+    private final InvoiceRollupJob invoiceRollupJob;
+
+    @Operation(summary = "Totales por intervalo", description = "Facturas creadas en [from, to) agrupadas por DAY, WEEK o MONTH y estado actual. Se sirve desde los rollups, sin recorrer las facturas.")
+    @GetMapping("/totals")
+    public ResponseEntity<List<InvoiceRollupResponse>> getTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RollupBucket bucket,
+            @RequestParam(required = false) InvoiceStatus status) {
+        return ResponseEntity.ok(invoiceAnalyticsService.getRollups(from, to, bucket, status));
+    }
+
+    @Operation(summary = "Reconstruir rollups", description = "Recalcula [from, to) desde las facturas en tramos paralelos. Responde 202 y corre en segundo plano; 409 si ya hay una reconstrucción en curso.")
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (!from.isBefore(to))
+            throw new IllegalArgumentException("El rango de fechas es inválido: 'from' debe ser anterior a 'to'.");
+        return invoiceRollupJob.startRebuild(from, to)
+                ? ResponseEntity.status(HttpStatus.ACCEPTED).build()
+                : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
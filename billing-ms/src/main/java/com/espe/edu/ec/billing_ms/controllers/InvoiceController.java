@@ -1,7 +1,15 @@
 package com.espe.edu.ec.billing_ms.controllers;
 
+import com.espe.edu.ec.billing_ms.dtos.InvoiceBulkIssueRequest;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceFilter;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceIssueRunResponse;
+import com.espe.edu.ec.billing_ms.dtos.InvoicePageResponse;
 import com.espe.edu.ec.billing_ms.dtos.InvoiceRequest;
 import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
+import com.espe.edu.ec.billing_ms.mappers.InvoiceMapper;
+import com.espe.edu.ec.billing_ms.model_enums.ExportFormat;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.services.InvoiceIssueRunService;
 import com.espe.edu.ec.billing_ms.services.InvoiceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +19,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -25,16 +41,23 @@ import java.util.UUID;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final InvoiceIssueRunService invoiceIssueRunService;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Crear borrador de factura", description = "Crea una nueva factura en estado DRAFT asociada a una orden.")
+    private static final byte[] NEWLINE = {'\n'};
+
+    @Operation(summary = "Crear borrador de factura", description = "Crea una nueva factura en estado DRAFT asociada a una orden. Con el header Idempotency-Key, un reintento con la misma clave devuelve la factura ya creada.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Factura creada exitosamente", 
             content = @Content(schema = @Schema(implementation = InvoiceResponse.class))),
-        @ApiResponse(responseCode = "400", description = "Datos inválidos o factura ya existente para la orden", content = @Content)
+        @ApiResponse(responseCode = "400", description = "Datos inválidos o factura ya existente para la orden", content = @Content),
+        @ApiResponse(responseCode = "409", description = "Idempotency-Key en curso o usada con otra solicitud", content = @Content),
+        @ApiResponse(responseCode = "503", description = "No se pudo verificar la orden en order-ms", content = @Content)
     })
     @PostMapping
-    public ResponseEntity<InvoiceResponse> createInvoice(@RequestBody @Valid InvoiceRequest request) {
-        InvoiceResponse response = invoiceService.createInvoice(request);
+    public ResponseEntity<InvoiceResponse> createInvoice(@RequestBody @Valid InvoiceRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        InvoiceResponse response = invoiceService.createInvoice(request, idempotencyKey);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
@@ -42,7 +65,7 @@ public class InvoiceController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Factura emitida correctamente", 
             content = @Content(schema = @Schema(implementation = InvoiceResponse.class))),
-        @ApiResponse(responseCode = "400", description = "La factura no está en estado DRAFT", content = @Content),
+        @ApiResponse(responseCode = "409", description = "La factura no está en estado DRAFT", content = @Content),
         @ApiResponse(responseCode = "404", description = "Factura no encontrada", content = @Content)
     })
     @PostMapping("/{id}/issue")
@@ -51,6 +74,29 @@ public class InvoiceController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Emitir facturas en bloque", description = "Registra una emisión masiva (lista de IDs o todos los DRAFT de un cliente) que se procesa en segundo plano por tramos.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Emisión registrada",
+            content = @Content(schema = @Schema(implementation = InvoiceIssueRunResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content)
+    })
+    @PostMapping("/issue")
+    public ResponseEntity<InvoiceIssueRunResponse> issueInvoices(@RequestBody @Valid InvoiceBulkIssueRequest request) {
+        InvoiceIssueRunResponse response = invoiceIssueRunService.startRun(request);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @Operation(summary = "Progreso de emisión en bloque", description = "Devuelve el avance de una emisión masiva.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estado de la emisión",
+            content = @Content(schema = @Schema(implementation = InvoiceIssueRunResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Emisión no encontrada", content = @Content)
+    })
+    @GetMapping("/issue-runs/{runId}")
+    public ResponseEntity<InvoiceIssueRunResponse> getIssueRun(@PathVariable UUID runId) {
+        return ResponseEntity.ok(invoiceIssueRunService.getRun(runId));
+    }
+
     @Operation(summary = "Buscar factura por Orden", description = "Obtiene la factura asociada a un ID de orden específico.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Factura encontrada", 
@@ -63,13 +109,68 @@ public class InvoiceController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Listar todas las facturas", description = "Devuelve el historial completo de facturas.")
+    @Operation(summary = "Descargar XML de factura", description = "Devuelve el comprobante electrónico en XML de una factura emitida.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "XML de la factura",
+            content = @Content(mediaType = MediaType.APPLICATION_XML_VALUE)),
+        @ApiResponse(responseCode = "400", description = "La factura no tiene XML generado todavía", content = @Content)
+    })
+    @GetMapping(value = "/{id}/xml", produces = MediaType.APPLICATION_XML_VALUE)
+    public ResponseEntity<byte[]> getInvoiceXml(@PathVariable UUID id) {
+        byte[] xml = invoiceService.getInvoiceXml(id);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_XML).body(xml);
+    }
+
+    @Operation(summary = "Listar facturas", description = "Paginación keyset de la más reciente a la más antigua: enviar 'nextCursor' de la respuesta previa como 'cursor'. Filtros opcionales por estado, cliente y rango de emisión [issuedFrom, issuedTo).")
     @GetMapping
-    public ResponseEntity<List<InvoiceResponse>> getAllInvoices() {
-        List<InvoiceResponse> invoices = invoiceService.getAllInvoices();
-        if (invoices.isEmpty()) {
+    public ResponseEntity<InvoicePageResponse> getInvoices(
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) String customerTaxId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime issuedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime issuedTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        InvoiceFilter filter = new InvoiceFilter(status, customerTaxId, issuedFrom, issuedTo);
+        InvoicePageResponse page = invoiceService.getInvoices(filter, cursor, limit);
+        if (page.getInvoices().isEmpty()) {
             return ResponseEntity.noContent().build();
         }
-        return ResponseEntity.ok(invoices);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Exportar facturas (NDJSON o CSV)", description = "Exportación contable con los mismos filtros del listado. Se escribe a medida que se lee de la base, con memoria acotada.")
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<StreamingResponseBody> exportInvoices(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) InvoiceStatus status,
+            @RequestParam(required = false) String customerTaxId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime issuedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime issuedTo) {
+        InvoiceFilter filter = new InvoiceFilter(status, customerTaxId, issuedFrom, issuedTo);
+
+        if (format == ExportFormat.CSV) {
+            StreamingResponseBody body = outputStream -> {
+                outputStream.write(InvoiceMapper.CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+                invoiceService.streamInvoices(filter, invoice -> write(outputStream, InvoiceMapper.responseToCsvLine(invoice).getBytes(StandardCharsets.UTF_8)));
+            };
+            return ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header("Content-Disposition", "attachment; filename=\"invoices.csv\"")
+                    .body(body);
+        }
+
+        StreamingResponseBody body = outputStream -> invoiceService.streamInvoices(filter, invoice -> {
+            write(outputStream, objectMapper.writeValueAsBytes(invoice));
+            write(outputStream, NEWLINE);
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static void write(OutputStream outputStream, byte[] bytes) {
+        try {
+            outputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Con invoiceIds se emiten esas facturas; sin ellos, todos los DRAFT que cumplan
+ * el filtro (todos si no se indica ninguno).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceBulkIssueRequest {
+
+    @Size(max = 50000, message = "No se pueden emitir más de 50000 facturas por lista")
+    private List<UUID> invoiceIds;
+
+    @Size(max = 20, message = "El documento no puede exceder 20 caracteres")
+    private String customerTaxId;
+
+}
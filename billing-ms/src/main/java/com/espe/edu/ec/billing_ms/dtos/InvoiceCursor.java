@@ -0,0 +1,10 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Posición de paginación keyset sobre (created_at, id), en orden descendente.
+ */
+public record InvoiceCursor(LocalDateTime createdAt, UUID id) {
+}
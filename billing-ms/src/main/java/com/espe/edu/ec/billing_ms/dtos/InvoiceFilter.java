@@ -0,0 +1,26 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros opcionales del listado y la exportación de facturas; los nulos no filtran.
+ * El rango de emisión es [issuedFrom, issuedTo).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceFilter {
+
+    private InvoiceStatus status;
+    private String customerTaxId;
+    private LocalDateTime issuedFrom;
+    private LocalDateTime issuedTo;
+
+}
@@ -0,0 +1,29 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import com.espe.edu.ec.billing_ms.model_enums.IssueRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceIssueRunResponse {
+
+    private UUID id;
+    private IssueRunStatus status;
+    private String customerTaxId;
+    private int totalCount;
+    private int processedCount;
+    private int issuedCount;
+    private int skippedCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+
+}
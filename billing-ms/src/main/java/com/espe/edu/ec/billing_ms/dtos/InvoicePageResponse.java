@@ -0,0 +1,20 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoicePageResponse {
+
+    private List<InvoiceResponse> invoices;
+    // Token opaco para solicitar la siguiente página; null si no hay más resultados
+    private String nextCursor;
+
+}
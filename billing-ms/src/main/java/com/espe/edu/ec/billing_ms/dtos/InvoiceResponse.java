@@ -10,6 +10,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// InvoiceQueryRepositoryImpl construye esta clase por constructor: no reordenar los campos
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,6 +25,8 @@ public class InvoiceResponse {
     private BigDecimal total;
     private InvoiceStatus status;
     private LocalDateTime issuedAt;
-    private String xmlData; 
+    // El XML se descarga aparte (GET /invoices/{id}/xml); null mientras no esté generado
+    private LocalDateTime xmlGeneratedAt;
+    private LocalDateTime createdAt;
 
 }
\ No newline at end of file
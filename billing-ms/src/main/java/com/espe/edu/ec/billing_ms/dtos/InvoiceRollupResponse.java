@@ -0,0 +1,25 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceRollupResponse {
+
+    private LocalDate bucketStart;
+    private InvoiceStatus status;
+    private long invoices;
+    private BigDecimal subtotal;
+    private BigDecimal taxAmount;
+    private BigDecimal total;
+
+}
@@ -0,0 +1,26 @@
+package com.espe.edu.ec.billing_ms.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Evento de pedido tal como lo expone order-ms en GET /orders/events
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEventResponse {
+
+    private Long id;
+    // Posición en el registro de order-ms (orden de confirmación); es el cursor de replicación
+    private Long sequence;
+    private UUID orderId;
+    private String eventType;
+    private String orderStatus;
+    private LocalDateTime createdAt;
+
+}
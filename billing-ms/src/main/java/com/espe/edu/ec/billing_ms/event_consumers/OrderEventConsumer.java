@@ -0,0 +1,46 @@
+package com.espe.edu.ec.billing_ms.event_consumers;
+
+import com.espe.edu.ec.billing_ms.dtos.OrderEventResponse;
+import com.espe.edu.ec.billing_ms.event_producers.OrderEventProducer;
+import com.espe.edu.ec.billing_ms.services.OrderReplicaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Consume periódicamente el registro de eventos de order-ms y mantiene
+ * actualizado el índice local de pedidos (order_replicas).
+ */
+@Component
+@Slf4j
+public class OrderEventConsumer {
+
+    private final OrderEventProducer orderEventProducer;
+    private final OrderReplicaService orderReplicaService;
+    private final int batchSize;
+
+    public OrderEventConsumer(OrderEventProducer orderEventProducer,
+                              OrderReplicaService orderReplicaService,
+                              @Value("${orders.replica.batch-size:500}") int batchSize) {
+        this.orderEventProducer = orderEventProducer;
+        this.orderReplicaService = orderReplicaService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.replica.poll-interval:2s}")
+    public void poll() {
+        try {
+            List<OrderEventResponse> events;
+            do {
+                // Se lee el cursor en cada vuelta: así un reinicio retoma desde lo ya confirmado
+                events = orderEventProducer.getOrderEvents(orderReplicaService.getLastEventId(), batchSize);
+                orderReplicaService.applyEvents(events);
+            } while (events.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron sincronizar eventos de pedidos: {}", e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,24 @@
 package com.espe.edu.ec.billing_ms.event_producers;
 
+import java.util.List;
 import java.util.UUID;
 
+import com.espe.edu.ec.billing_ms.config.OrderClientConfig;
+import com.espe.edu.ec.billing_ms.dtos.OrderEventResponse;
+
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient(name = "order-ms", url = "${ORDER_SERVICE_URL:http://order-service:8080}")
+@FeignClient(name = "order-ms", url = "${ORDER_SERVICE_URL:http://order-service:8080}", configuration = OrderClientConfig.class)
 public interface OrderEventProducer {
 
     @PostMapping("/orders/exists/{id}")
     boolean orderExists(@PathVariable UUID id);
 
+    @GetMapping("/orders/events")
+    List<OrderEventResponse> getOrderEvents(@RequestParam("after") long after, @RequestParam("limit") int limit);
+
 }
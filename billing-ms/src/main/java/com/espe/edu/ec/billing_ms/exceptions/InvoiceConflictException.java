@@ -0,0 +1,13 @@
+package com.espe.edu.ec.billing_ms.exceptions;
+
+/**
+ * La factura existe pero su estado actual no admite la operación pedida, normalmente
+ * porque otra solicitud o proceso la modificó antes. Se responde como 409 Conflict.
+ */
+public class InvoiceConflictException extends IllegalStateException {
+
+    public InvoiceConflictException(String message) {
+        super(message);
+    }
+
+}
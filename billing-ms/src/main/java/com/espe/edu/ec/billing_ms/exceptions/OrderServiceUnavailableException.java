@@ -0,0 +1,13 @@
+package com.espe.edu.ec.billing_ms.exceptions;
+
+/**
+ * order-ms no respondió o respondió con un error distinto de 404, así que no se sabe
+ * si la orden existe. Se responde como 503 Service Unavailable para que el cliente reintente.
+ */
+public class OrderServiceUnavailableException extends RuntimeException {
+
+    public OrderServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.espe.edu.ec.billing_ms.jobs;
+
+import com.espe.edu.ec.billing_ms.services.InvoiceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Genera en segundo plano el XML de las facturas emitidas que aún no lo tienen.
+ * Cada lote se bloquea con SKIP LOCKED, así varias instancias avanzan en paralelo
+ * sin generar dos veces el mismo documento.
+ */
+@Component
+@Slf4j
+public class InvoiceDocumentJob {
+
+    private final InvoiceService invoiceService;
+    private final int batchSize;
+
+    public InvoiceDocumentJob(InvoiceService invoiceService,
+                              @Value("${billing.issuance.batch-size:200}") int batchSize) {
+        this.invoiceService = invoiceService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${billing.issuance.poll-interval:5s}")
+    public void generatePending() {
+        try {
+            int generated;
+            do {
+                // Un lote por transacción: un fallo solo revierte el lote en curso
+                generated = invoiceService.generatePendingDocuments(batchSize);
+            } while (generated == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron generar documentos XML de facturas: {}", e.getMessage());
+        }
+    }
+}
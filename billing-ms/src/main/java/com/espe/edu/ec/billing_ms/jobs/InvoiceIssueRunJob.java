@@ -0,0 +1,38 @@
+package com.espe.edu.ec.billing_ms.jobs;
+
+import com.espe.edu.ec.billing_ms.services.InvoiceIssueRunService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avanza las emisiones masivas pendientes tramo a tramo. Cada tramo es una transacción
+ * independiente, así una emisión grande no retiene bloqueos ni se pierde entera si
+ * la instancia cae: la siguiente pasada (de esta u otra instancia) retoma el cursor.
+ */
+@Component
+@Slf4j
+public class InvoiceIssueRunJob {
+
+    private final InvoiceIssueRunService invoiceIssueRunService;
+    private final int chunkSize;
+
+    public InvoiceIssueRunJob(InvoiceIssueRunService invoiceIssueRunService,
+                              @Value("${billing.issuance.chunk-size:1000}") int chunkSize) {
+        this.invoiceIssueRunService = invoiceIssueRunService;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${billing.issuance.poll-interval:5s}")
+    public void processRuns() {
+        try {
+            boolean processed;
+            do {
+                processed = invoiceIssueRunService.processNextChunk(chunkSize);
+            } while (processed);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo avanzar la emisión masiva de facturas: {}", e.getMessage());
+        }
+    }
+}
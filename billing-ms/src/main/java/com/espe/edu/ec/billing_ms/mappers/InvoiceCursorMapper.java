@@ -0,0 +1,41 @@
+package com.espe.edu.ec.billing_ms.mappers;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceCursor;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+public final class InvoiceCursorMapper {
+
+    private static final String SEPARATOR = "|";
+
+    private InvoiceCursorMapper() {
+        throw new UnsupportedOperationException("Clase utilitaria");
+    }
+
+    public static String encode(InvoiceResponse invoice) {
+
+        if (invoice == null) throw new IllegalArgumentException("Factura inválida para generar cursor.");
+
+        String raw = invoice.getCreatedAt() + SEPARATOR + invoice.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static InvoiceCursor decode(String cursor) {
+
+        if (cursor == null || cursor.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new InvoiceCursor(
+                    LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido.");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.espe.edu.ec.billing_ms.mappers;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceIssueRunResponse;
+import com.espe.edu.ec.billing_ms.models.InvoiceIssueRun;
+
+public final class InvoiceIssueRunMapper {
+
+    private InvoiceIssueRunMapper() {
+        throw new UnsupportedOperationException("Clase utilitaria");
+    }
+
+    public static InvoiceIssueRunResponse entityToResponse(InvoiceIssueRun run) {
+        if (run == null) return null;
+
+        return InvoiceIssueRunResponse.builder()
+                .id(run.getId())
+                .status(run.getStatus())
+                .customerTaxId(run.getCustomerTaxId())
+                .totalCount(run.getTotalCount())
+                .processedCount(run.getIssuedCount() + run.getSkippedCount())
+                .issuedCount(run.getIssuedCount())
+                .skippedCount(run.getSkippedCount())
+                .createdAt(run.getCreatedAt())
+                .updatedAt(run.getUpdatedAt())
+                .completedAt(run.getCompletedAt())
+                .build();
+    }
+}
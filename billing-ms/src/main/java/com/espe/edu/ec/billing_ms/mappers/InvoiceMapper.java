@@ -7,6 +7,9 @@ import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
 
 public final class InvoiceMapper {
 
+    public static final String CSV_HEADER = "id,orderId,customerTaxId,subtotal,taxAmount,total,status,issuedAt,createdAt\n";
+    private static final char CSV_SEPARATOR = ',';
+
     private InvoiceMapper() {
         throw new UnsupportedOperationException("Clase utilitaria");
     }
@@ -37,7 +40,36 @@ public final class InvoiceMapper {
                 .total(invoice.getTotal())
                 .status(invoice.getStatus())
                 .issuedAt(invoice.getIssuedAt())
-                .xmlData(invoice.getXmlData())
+                .xmlGeneratedAt(invoice.getXmlGeneratedAt())
+                .createdAt(invoice.getCreatedAt())
                 .build();
     }
+
+    public static String responseToCsvLine(InvoiceResponse invoice) {
+
+        StringBuilder line = new StringBuilder(160)
+                .append(invoice.getId()).append(CSV_SEPARATOR)
+                .append(invoice.getOrderId()).append(CSV_SEPARATOR);
+        appendCsvText(line, invoice.getCustomerTaxId());
+        return line.append(CSV_SEPARATOR)
+                .append(invoice.getSubtotal().toPlainString()).append(CSV_SEPARATOR)
+                .append(invoice.getTaxAmount().toPlainString()).append(CSV_SEPARATOR)
+                .append(invoice.getTotal().toPlainString()).append(CSV_SEPARATOR)
+                .append(invoice.getStatus()).append(CSV_SEPARATOR)
+                .append(invoice.getIssuedAt() != null ? invoice.getIssuedAt() : "").append(CSV_SEPARATOR)
+                .append(invoice.getCreatedAt())
+                .append('\n')
+                .toString();
+    }
+
+    // RFC 4180: entre comillas solo si contiene separador, comillas o saltos de línea
+    private static void appendCsvText(StringBuilder line, String value) {
+
+        if (value == null) return;
+        if (value.indexOf(CSV_SEPARATOR) < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
 }
\ No newline at end of file
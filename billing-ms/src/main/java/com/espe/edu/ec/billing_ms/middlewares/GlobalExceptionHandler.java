@@ -1,9 +1,14 @@
 package com.espe.edu.ec.billing_ms.middlewares;
 
+import com.espe.edu.ec.billing_ms.exceptions.IdempotencyConflictException;
+import com.espe.edu.ec.billing_ms.exceptions.InvoiceConflictException;
+import com.espe.edu.ec.billing_ms.exceptions.OrderServiceUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+@ControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -16,4 +21,14 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({IdempotencyConflictException.class, InvoiceConflictException.class})
+    public ResponseEntity<String> handleConflicts(IllegalStateException ex){
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OrderServiceUnavailableException.class)
+    public ResponseEntity<String> handleOrderServiceUnavailable(OrderServiceUnavailableException ex){
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
@@ -0,0 +1,6 @@
+package com.espe.edu.ec.billing_ms.model_enums;
+
+public enum ExportFormat {
+    NDJSON,
+    CSV
+}
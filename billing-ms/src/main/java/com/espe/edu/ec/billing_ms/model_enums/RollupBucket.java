@@ -0,0 +1,8 @@
+package com.espe.edu.ec.billing_ms.model_enums;
+
+// Tamaño de los intervalos de las consultas de analítica (unidad de date_trunc en PostgreSQL)
+public enum RollupBucket {
+    DAY,
+    WEEK,
+    MONTH
+}
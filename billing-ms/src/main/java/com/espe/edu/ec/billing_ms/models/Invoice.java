@@ -3,6 +3,8 @@ package com.espe.edu.ec.billing_ms.models;
 import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
@@ -10,7 +12,18 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_status_xml_generated_at", columnList = "status, xml_generated_at"),
+    @Index(name = "idx_invoices_status_id", columnList = "status, id"),
+    @Index(name = "idx_invoices_customer_status_id", columnList = "customer_tax_id, status, id"),
+    // Listado keyset (created_at DESC, id DESC), sin filtro, por estado o por cliente
+    @Index(name = "idx_invoices_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_invoices_status_created_at_id", columnList = "status, created_at, id"),
+    @Index(name = "idx_invoices_customer_created_at_id", columnList = "customer_tax_id, created_at, id"),
+    @Index(name = "idx_invoices_issued_at", columnList = "issued_at")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = Invoice.IDEMPOTENCY_KEY_CONSTRAINT, columnNames = "idempotency_key")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +32,9 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class Invoice {
 
+    // Respaldo de IdempotencyStore: dos solicitudes con la misma clave no crean dos facturas
+    public static final String IDEMPOTENCY_KEY_CONSTRAINT = "uk_invoices_idempotency_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -26,6 +42,14 @@ public class Invoice {
     @Column(name = "order_id", nullable = false, unique = true)
     private UUID orderId;
 
+    // Idempotency-Key con la que se creó la factura; nula si el cliente no la envió
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Huella (SHA-256) del cuerpo de la solicitud que usó idempotencyKey; ver IdempotencyStore.fingerprint
+    @Column(name = "idempotency_fingerprint", length = 64)
+    private String idempotencyFingerprint;
+
     @Column(name = "customer_tax_id", length = 20, nullable = false)
     private String customerTaxId;
 
@@ -45,7 +69,14 @@ public class Invoice {
     @Column(name = "issued_at")
     private LocalDateTime issuedAt;
 
-    @Column(name = "xml_data", columnDefinition = "TEXT")
-    private String xmlData;
+    // El XML se guarda en invoice_documents; aquí solo se marca cuándo quedó generado
+    @Column(name = "xml_generated_at")
+    private LocalDateTime xmlGeneratedAt;
+
+    // Clave de la paginación keyset; el DEFAULT rellena las facturas anteriores a esta columna
+    @CreatedDate
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
 
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.espe.edu.ec.billing_ms.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * XML del comprobante electrónico de una factura emitida. Vive en su propia tabla para
+ * que las consultas sobre invoices (listados, búsquedas) nunca lean el documento.
+ */
+@Entity
+@Table(name = "invoice_documents")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceDocument implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "invoice_id")
+    private UUID invoiceId;
+
+    // XML en UTF-8 tal como lo escribió el generador
+    @Column(nullable = false)
+    private byte[] xml;
+
+    @Column(name = "size_bytes", nullable = false)
+    private int sizeBytes;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    // El id lo asigna la factura; sin esto save() haría merge y un SELECT previo por documento
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newDocument = true;
+
+    @Override
+    public UUID getId() {
+        return invoiceId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newDocument;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        newDocument = false;
+    }
+
+}
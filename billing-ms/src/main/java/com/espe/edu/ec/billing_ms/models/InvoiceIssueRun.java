@@ -0,0 +1,75 @@
+package com.espe.edu.ec.billing_ms.models;
+
+import com.espe.edu.ec.billing_ms.model_enums.IssueRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Emisión masiva de facturas. Se procesa por tramos ordenados por ID de factura;
+ * cada tramo confirma en la misma transacción el UPDATE de las facturas y el avance
+ * de lastInvoiceId, así tras una caída se retoma desde el último tramo confirmado.
+ */
+@Entity
+@Table(name = "invoice_issue_runs", indexes = {
+    @Index(name = "idx_invoice_issue_runs_status_created_at", columnList = "status, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InvoiceIssueRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IssueRunStatus status;
+
+    // Filtro sobre los DRAFT; se ignora cuando la emisión es por lista de IDs
+    @Column(name = "customer_tax_id", length = 20)
+    private String customerTaxId;
+
+    @Column(name = "explicit_ids", nullable = false)
+    private boolean explicitIds;
+
+    @ElementCollection
+    @CollectionTable(name = "invoice_issue_run_items", joinColumns = @JoinColumn(name = "run_id"),
+            indexes = @Index(name = "idx_invoice_issue_run_items_run_invoice", columnList = "run_id, invoice_id"))
+    @Column(name = "invoice_id", nullable = false)
+    @Builder.Default
+    private List<UUID> invoiceIds = new ArrayList<>();
+
+    // Cursor: última factura ya procesada (emitida u omitida)
+    @Column(name = "last_invoice_id")
+    private UUID lastInvoiceId;
+
+    // Facturas que cumplían el criterio al crear la emisión
+    @Column(name = "total_count", nullable = false)
+    private int totalCount;
+
+    @Column(name = "issued_count", nullable = false)
+    private int issuedCount;
+
+    // Facturas del tramo que ya no estaban en DRAFT (emitidas por otra vía o anuladas)
+    @Column(name = "skipped_count", nullable = false)
+    private int skippedCount;
+
+    // También acota una emisión por filtro: solo entran facturas con created_at <= este instante
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+}
@@ -0,0 +1,32 @@
+package com.espe.edu.ec.billing_ms.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Copia local y compacta de los pedidos de order-ms (ID y estado), alimentada
+ * por el registro de eventos de pedidos. Evita consultar order-ms al facturar.
+ */
+@Entity
+@Table(name = "order_replicas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderReplica {
+
+    @Id
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(nullable = false, length = 40)
+    private String status;
+
+    // Posición (sequence) del último evento aplicado; los eventos con posición menor o igual se ignoran
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+}
@@ -0,0 +1,23 @@
+package com.espe.edu.ec.billing_ms.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "replication_cursors")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplicationCursor {
+
+    @Id
+    @Column(length = 60)
+    private String name;
+
+    // Posición (sequence) del último evento consumido
+    @Column(nullable = false)
+    private Long position;
+
+}
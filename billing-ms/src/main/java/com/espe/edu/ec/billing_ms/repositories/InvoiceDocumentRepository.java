@@ -0,0 +1,9 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.models.InvoiceDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface InvoiceDocumentRepository extends JpaRepository<InvoiceDocument, UUID> {
+}
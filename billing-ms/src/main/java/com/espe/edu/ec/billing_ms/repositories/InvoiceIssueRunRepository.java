@@ -0,0 +1,28 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.models.InvoiceIssueRun;
+import com.espe.edu.ec.billing_ms.model_enums.IssueRunStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InvoiceIssueRunRepository extends JpaRepository<InvoiceIssueRun, UUID> {
+
+    // Una emisión la procesa una sola instancia a la vez; las demás la saltan (SKIP LOCKED)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM InvoiceIssueRun r WHERE r.status = :status ORDER BY r.createdAt, r.id")
+    List<InvoiceIssueRun> lockByStatus(@Param("status") IssueRunStatus status, Limit limit);
+
+    @Query("SELECT i FROM InvoiceIssueRun r JOIN r.invoiceIds i WHERE r.id = :runId AND i > :after ORDER BY i")
+    List<UUID> findItemsAfter(@Param("runId") UUID runId, @Param("after") UUID after, Limit limit);
+
+}
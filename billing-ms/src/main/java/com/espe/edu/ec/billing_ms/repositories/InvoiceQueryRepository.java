@@ -0,0 +1,22 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceCursor;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceFilter;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de listado con filtros opcionales. Se arma el JPQL solo con los filtros
+ * presentes para que cada combinación use su índice, en lugar de un único
+ * "(:x IS NULL OR ...)" que Postgres planifica igual para todas.
+ */
+public interface InvoiceQueryRepository {
+
+    List<InvoiceResponse> findPage(InvoiceFilter filter, InvoiceCursor after, int limit);
+
+    // Requiere una transacción abierta mientras se consume el stream
+    Stream<InvoiceResponse> streamFiltered(InvoiceFilter filter);
+
+}
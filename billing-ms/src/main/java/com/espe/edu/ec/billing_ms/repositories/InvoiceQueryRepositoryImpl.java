@@ -0,0 +1,88 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceCursor;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceFilter;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class InvoiceQueryRepositoryImpl implements InvoiceQueryRepository {
+
+    // Proyección por constructor: no se materializan entidades ni entran al contexto de persistencia
+    private static final String SELECT_SUMMARY = "SELECT new com.espe.edu.ec.billing_ms.dtos.InvoiceResponse(" +
+            "i.id, i.orderId, i.customerTaxId, i.subtotal, i.taxAmount, i.total, i.status, i.issuedAt, " +
+            "i.xmlGeneratedAt, i.createdAt) FROM Invoice i WHERE 1 = 1";
+    private static final String ORDER_BY = " ORDER BY i.createdAt DESC, i.id DESC";
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InvoiceResponse> findPage(InvoiceFilter filter, InvoiceCursor after, int limit) {
+
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARY);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        appendFilters(filter, jpql, parameters);
+        if (after != null) {
+            jpql.append(" AND (i.createdAt < :afterCreatedAt OR (i.createdAt = :afterCreatedAt AND i.id < :afterId))");
+            parameters.put("afterCreatedAt", after.createdAt());
+            parameters.put("afterId", after.id());
+        }
+        jpql.append(ORDER_BY);
+
+        return createQuery(jpql, parameters)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<InvoiceResponse> streamFiltered(InvoiceFilter filter) {
+
+        StringBuilder jpql = new StringBuilder(SELECT_SUMMARY);
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        appendFilters(filter, jpql, parameters);
+        jpql.append(ORDER_BY);
+
+        // Con fetch size el driver de Postgres lee por bloques con un cursor en lugar de cargar todo el resultado
+        return createQuery(jpql, parameters)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static void appendFilters(InvoiceFilter filter, StringBuilder jpql, Map<String, Object> parameters) {
+
+        if (filter == null) return;
+        if (filter.getStatus() != null) {
+            jpql.append(" AND i.status = :status");
+            parameters.put("status", filter.getStatus());
+        }
+        if (filter.getCustomerTaxId() != null && !filter.getCustomerTaxId().isBlank()) {
+            jpql.append(" AND i.customerTaxId = :customerTaxId");
+            parameters.put("customerTaxId", filter.getCustomerTaxId());
+        }
+        if (filter.getIssuedFrom() != null) {
+            jpql.append(" AND i.issuedAt >= :issuedFrom");
+            parameters.put("issuedFrom", filter.getIssuedFrom());
+        }
+        if (filter.getIssuedTo() != null) {
+            jpql.append(" AND i.issuedAt < :issuedTo");
+            parameters.put("issuedTo", filter.getIssuedTo());
+        }
+    }
+
+    private TypedQuery<InvoiceResponse> createQuery(StringBuilder jpql, Map<String, Object> parameters) {
+
+        TypedQuery<InvoiceResponse> query = entityManager.createQuery(jpql.toString(), InvoiceResponse.class);
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -1,13 +1,64 @@
 package com.espe.edu.ec.billing_ms.repositories;
 
 import com.espe.edu.ec.billing_ms.models.Invoice;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface InvoiceRepository extends JpaRepository<Invoice, UUID> {
+public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, InvoiceQueryRepository, InvoiceRollupRepository {
     
     Optional<Invoice> findByOrderId(UUID orderId);
+
+    Optional<Invoice> findByIdempotencyKey(String idempotencyKey);
+
+    // Emisión individual: la factura queda bloqueada frente a anulaciones y emisiones masivas concurrentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.id = :id")
+    Optional<Invoice> findByIdForUpdate(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Invoice i SET i.status = :newStatus WHERE i.orderId IN :orderIds AND i.status = :currentStatus")
+    int updateStatusByOrderIds(@Param("orderIds") Collection<UUID> orderIds,
+                               @Param("currentStatus") InvoiceStatus currentStatus,
+                               @Param("newStatus") InvoiceStatus newStatus);
+
+    @Query("SELECT COUNT(i) FROM Invoice i WHERE i.status = :status AND (:customerTaxId IS NULL OR i.customerTaxId = :customerTaxId) " +
+           "AND i.createdAt <= :createdBefore")
+    long countByStatusAndCustomer(@Param("status") InvoiceStatus status, @Param("customerTaxId") String customerTaxId,
+                                  @Param("createdBefore") LocalDateTime createdBefore);
+
+    // Siguiente tramo de una emisión masiva por filtro, en orden de ID a partir del cursor.
+    // createdBefore fija el alcance al inicio de la emisión: los DRAFT creados después no entran
+    @Query("SELECT i.id FROM Invoice i WHERE i.status = :status AND (:customerTaxId IS NULL OR i.customerTaxId = :customerTaxId) " +
+           "AND i.createdAt <= :createdBefore AND i.id > :after ORDER BY i.id")
+    List<UUID> findIdsByStatusAfter(@Param("status") InvoiceStatus status, @Param("customerTaxId") String customerTaxId,
+                                    @Param("createdBefore") LocalDateTime createdBefore, @Param("after") UUID after, Limit limit);
+
+    // Emisión en bloque: solo pasan las que siguen en DRAFT, sin leer ni bloquear antes cada factura
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Invoice i SET i.status = :newStatus, i.issuedAt = :issuedAt WHERE i.id IN :ids AND i.status = :currentStatus")
+    int issueByIds(@Param("ids") Collection<UUID> ids,
+                   @Param("currentStatus") InvoiceStatus currentStatus,
+                   @Param("newStatus") InvoiceStatus newStatus,
+                   @Param("issuedAt") LocalDateTime issuedAt);
+
+    // Facturas emitidas sin XML. SKIP LOCKED (lock.timeout = -2) reparte el trabajo entre instancias
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT i FROM Invoice i WHERE i.status = :status AND i.xmlGeneratedAt IS NULL ORDER BY i.issuedAt, i.id")
+    List<Invoice> lockPendingDocuments(@Param("status") InvoiceStatus status, Limit limit);
     
 }
\ No newline at end of file
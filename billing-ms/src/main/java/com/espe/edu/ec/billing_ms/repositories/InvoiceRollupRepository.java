@@ -0,0 +1,37 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRollupResponse;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.RollupBucket;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acceso a invoice_rollup_deltas e invoice_daily_rollups (tablas creadas por Flyway).
+ * Todos los record* se llaman dentro de la transacción que escribe las facturas.
+ */
+public interface InvoiceRollupRepository {
+
+    // Después de insertar las facturas
+    void recordCreated(Collection<UUID> ids);
+
+    /*
+     * Antes del UPDATE condicional (status = from): bloquea las facturas que siguen en 'from'
+     * y registra su paso a 'to'. Con el bloqueo, el UPDATE posterior cambia exactamente esas
+     * filas aunque otra transacción compita por las mismas facturas.
+     */
+    void recordStatusChange(Collection<UUID> ids, InvoiceStatus from, InvoiceStatus to);
+
+    void recordStatusChangeByOrderIds(Collection<UUID> orderIds, InvoiceStatus from, InvoiceStatus to);
+
+    // Consolida hasta 'limit' deltas en invoice_daily_rollups; devuelve cuántos consumió
+    int foldDeltas(int limit);
+
+    // Recalcula [from, to) desde invoices, descartando los deltas del rango
+    void rebuildRollups(LocalDate from, LocalDate to);
+
+    List<InvoiceRollupResponse> findRollups(LocalDate from, LocalDate to, RollupBucket bucket, InvoiceStatus status);
+}
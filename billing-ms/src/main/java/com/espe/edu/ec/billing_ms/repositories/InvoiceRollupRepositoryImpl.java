@@ -0,0 +1,171 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRollupResponse;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.RollupBucket;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public class InvoiceRollupRepositoryImpl implements InvoiceRollupRepository {
+
+    private static final String RECORD_CREATED = """
+            INSERT INTO invoice_rollup_deltas (bucket_date, status, invoices, subtotal, tax_amount, total)
+            SELECT CAST(i.created_at AS date), i.status, count(*), sum(i.subtotal), sum(i.tax_amount), sum(i.total)
+            FROM invoices i WHERE i.id IN (:ids)
+            GROUP BY 1, 2
+            """;
+
+    // %s: columna por la que se eligen las facturas (id u order_id)
+    private static final String RECORD_STATUS_CHANGE = """
+            INSERT INTO invoice_rollup_deltas (bucket_date, status, invoices, subtotal, tax_amount, total)
+            SELECT l.bucket_date, s.status, count(*) * s.sign, sum(l.subtotal) * s.sign, sum(l.tax_amount) * s.sign, sum(l.total) * s.sign
+            FROM (
+                SELECT CAST(i.created_at AS date) AS bucket_date, i.subtotal, i.tax_amount, i.total
+                FROM invoices i WHERE i.%s IN (:keys) AND i.status = :from
+                FOR UPDATE
+            ) l
+            CROSS JOIN (VALUES (CAST(:from AS varchar), -1), (CAST(:to AS varchar), 1)) AS s(status, sign)
+            GROUP BY l.bucket_date, s.status, s.sign
+            """;
+
+    // SKIP LOCKED: dos instancias consolidan lotes distintos; el upsert suma sobre la fila del día
+    private static final String FOLD_DELTAS = """
+            WITH batch AS (
+                DELETE FROM invoice_rollup_deltas d
+                WHERE d.id IN (SELECT id FROM invoice_rollup_deltas ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)
+                RETURNING d.*
+            ), folded AS (
+                INSERT INTO invoice_daily_rollups AS r (bucket_date, status, invoices, subtotal, tax_amount, total)
+                SELECT bucket_date, status, sum(invoices), sum(subtotal), sum(tax_amount), sum(total)
+                FROM batch
+                GROUP BY bucket_date, status
+                ON CONFLICT (bucket_date, status) DO UPDATE SET
+                    invoices = r.invoices + EXCLUDED.invoices,
+                    subtotal = r.subtotal + EXCLUDED.subtotal,
+                    tax_amount = r.tax_amount + EXCLUDED.tax_amount,
+                    total = r.total + EXCLUDED.total
+            )
+            SELECT CAST(count(*) AS integer) FROM batch
+            """;
+
+    // ON CONFLICT: si una consolidación de deltas posteriores a la instantánea creó la fila, el tramo
+    // falla por serialización (se reintenta) y no por clave duplicada; ver OrderRollupRepositoryImpl en order-ms
+    private static final String REBUILD = """
+            INSERT INTO invoice_daily_rollups AS r (bucket_date, status, invoices, subtotal, tax_amount, total)
+            SELECT CAST(i.created_at AS date), i.status, count(*), sum(i.subtotal), sum(i.tax_amount), sum(i.total)
+            FROM invoices i
+            WHERE i.created_at >= :from AND i.created_at < :to
+            GROUP BY 1, 2
+            ON CONFLICT (bucket_date, status) DO UPDATE SET
+                invoices = r.invoices + EXCLUDED.invoices,
+                subtotal = r.subtotal + EXCLUDED.subtotal,
+                tax_amount = r.tax_amount + EXCLUDED.tax_amount,
+                total = r.total + EXCLUDED.total
+            """;
+
+    // Totales consolidados más deltas pendientes: el costo depende de los intervalos, no de las facturas.
+    // HAVING: un estado que todas sus facturas abandonaron suma cero y no se devuelve, igual que tras reconstruir
+    private static final String FIND_ROLLUPS = """
+            SELECT CAST(date_trunc(:unit, CAST(t.bucket_date AS timestamp)) AS date) AS bucket_start, t.status AS status,
+                   sum(t.invoices) AS invoices, sum(t.subtotal) AS subtotal, sum(t.tax_amount) AS tax_amount, sum(t.total) AS total
+            FROM (
+                SELECT bucket_date, status, invoices, subtotal, tax_amount, total
+                FROM invoice_daily_rollups WHERE bucket_date >= :from AND bucket_date < :to
+                UNION ALL
+                SELECT bucket_date, status, invoices, subtotal, tax_amount, total
+                FROM invoice_rollup_deltas WHERE bucket_date >= :from AND bucket_date < :to
+            ) t
+            WHERE CAST(:status AS varchar) IS NULL OR t.status = CAST(:status AS varchar)
+            GROUP BY 1, 2
+            HAVING sum(t.invoices) <> 0
+            ORDER BY 1, 2
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void recordCreated(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+        entityManager.createNativeQuery(RECORD_CREATED)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public void recordStatusChange(Collection<UUID> ids, InvoiceStatus from, InvoiceStatus to) {
+        recordStatusChange("id", ids, from, to);
+    }
+
+    @Override
+    public void recordStatusChangeByOrderIds(Collection<UUID> orderIds, InvoiceStatus from, InvoiceStatus to) {
+        recordStatusChange("order_id", orderIds, from, to);
+    }
+
+    private void recordStatusChange(String keyColumn, Collection<UUID> keys, InvoiceStatus from, InvoiceStatus to) {
+        if (keys.isEmpty()) return;
+        entityManager.createNativeQuery(RECORD_STATUS_CHANGE.formatted(keyColumn))
+                .setParameter("keys", keys)
+                .setParameter("from", from.name())
+                .setParameter("to", to.name())
+                .executeUpdate();
+    }
+
+    @Override
+    public int foldDeltas(int limit) {
+        return (Integer) entityManager.createNativeQuery(FOLD_DELTAS, Integer.class)
+                .setParameter("limit", limit)
+                .getSingleResult();
+    }
+
+    @Override
+    public void rebuildRollups(LocalDate from, LocalDate to) {
+        // Los deltas del rango ya están reflejados en las facturas que se van a recontar
+        for (String table : List.of("invoice_rollup_deltas", "invoice_daily_rollups")) {
+            entityManager.createNativeQuery("DELETE FROM " + table + " WHERE bucket_date >= :from AND bucket_date < :to")
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .executeUpdate();
+        }
+        entityManager.createNativeQuery(REBUILD)
+                .setParameter("from", from.atStartOfDay())
+                .setParameter("to", to.atStartOfDay())
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<InvoiceRollupResponse> findRollups(LocalDate from, LocalDate to, RollupBucket bucket, InvoiceStatus status) {
+        List<Object[]> rows = entityManager.createNativeQuery(FIND_ROLLUPS)
+                .unwrap(NativeQuery.class)
+                .addScalar("bucket_start", LocalDate.class)
+                .addScalar("status", String.class)
+                .addScalar("invoices", Long.class)
+                .addScalar("subtotal", BigDecimal.class)
+                .addScalar("tax_amount", BigDecimal.class)
+                .addScalar("total", BigDecimal.class)
+                .setParameter("unit", bucket.name().toLowerCase())
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("status", status != null ? status.name() : null)
+                .getResultList();
+
+        return rows.stream()
+                .map(row -> InvoiceRollupResponse.builder()
+                        .bucketStart((LocalDate) row[0])
+                        .status(InvoiceStatus.valueOf((String) row[1]))
+                        .invoices((Long) row[2])
+                        .subtotal((BigDecimal) row[3])
+                        .taxAmount((BigDecimal) row[4])
+                        .total((BigDecimal) row[5])
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,9 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.models.OrderReplica;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface OrderReplicaRepository extends JpaRepository<OrderReplica, UUID> {
+}
@@ -0,0 +1,7 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.models.ReplicationCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReplicationCursorRepository extends JpaRepository<ReplicationCursor, String> {
+}
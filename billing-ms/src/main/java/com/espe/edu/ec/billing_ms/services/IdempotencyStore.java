@@ -0,0 +1,141 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.exceptions.IdempotencyConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Respuestas recientes por Idempotency-Key, acotadas por cantidad (LRU) y por TTL.
+ * Es la vía rápida: un reintento se responde sin tocar la base. La garantía la da la
+ * restricción UNIQUE sobre la clave en la tabla, que cubre claves ya expulsadas de
+ * aquí y reintentos que llegan a otra instancia.
+ *
+ * begin() reserva la clave hasta que termine la transacción en curso: con commit guarda
+ * la respuesta registrada con complete(), con rollback libera la clave para un reintento.
+ * La huella del cuerpo (fingerprint()) se guarda también en la fila, para detectar una
+ * clave reutilizada con otro cuerpo cuando la respuesta ya no está aquí.
+ *
+ * order-ms tiene una copia igual, com.espe.edu.ec.order_ms.services.IdempotencyStore. Cada servicio
+ * se compila solo desde su carpeta, sin módulo común: un cambio va en las dos.
+ */
+public class IdempotencyStore<T> {
+
+    // Forma canónica del cuerpo: propiedades y claves de mapas en orden alfabético
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final Duration ttl;
+    private final Counter replayed;
+    private final Counter executed;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry<T>> entries;
+
+    public IdempotencyStore(String name, MeterRegistry meterRegistry, int maxEntries, Duration ttl) {
+        this.ttl = ttl;
+        this.replayed = Counter.builder("idempotency.requests").tag("store", name).tag("result", "replayed").register(meterRegistry);
+        this.executed = Counter.builder("idempotency.requests").tag("store", name).tag("result", "executed").register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // SHA-256 en hexadecimal (64 caracteres) del JSON canónico de la solicitud
+    public static String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(CANONICAL_JSON.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Devuelve la respuesta guardada para la clave o, si no hay, la reserva para la
+     * transacción actual. fingerprint identifica el cuerpo de la solicitud.
+     */
+    public Optional<T> begin(String key, String fingerprint) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            throw new IllegalStateException("IdempotencyStore requiere una transacción activa.");
+
+        lock.lock();
+        try {
+            Entry<T> entry = entries.get(key);
+            if (entry != null && entry.storedAt().plus(ttl).isBefore(Instant.now())) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry != null) {
+                if (!entry.fingerprint().equals(fingerprint))
+                    throw new IdempotencyConflictException("La Idempotency-Key ya se usó con una solicitud distinta.");
+                if (entry.response() == null)
+                    throw new IdempotencyConflictException("Hay una solicitud en curso con la misma Idempotency-Key.");
+                replayed.increment();
+                return Optional.of(entry.response());
+            }
+            entries.put(key, new Entry<>(fingerprint, null, Instant.now()));
+        } finally {
+            lock.unlock();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) release(key, fingerprint);
+            }
+        });
+        return Optional.empty();
+    }
+
+    // Guarda la respuesta cuando la transacción confirme; antes, un reintento ve la clave en curso
+    public void complete(String key, String fingerprint, T response) {
+
+        executed.increment();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lock.lock();
+                try {
+                    entries.put(key, new Entry<>(fingerprint, response, Instant.now()));
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    private void release(String key, String fingerprint) {
+
+        lock.lock();
+        try {
+            Entry<T> entry = entries.get(key);
+            if (entry != null && entry.response() == null && entry.fingerprint().equals(fingerprint)) entries.remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry<T>(String fingerprint, T response, Instant storedAt) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRollupResponse;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.RollupBucket;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InvoiceAnalyticsService {
+
+    List<InvoiceRollupResponse> getRollups(LocalDate from, LocalDate to, RollupBucket bucket, InvoiceStatus status);
+
+    int foldDeltas(int batchSize);
+
+    void rebuildChunk(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,49 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRollupResponse;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.billing_ms.repositories.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class InvoiceAnalyticsServiceImpl implements InvoiceAnalyticsService {
+
+    // Con intervalos diarios, ~3 años por consulta
+    public static final int MAX_RANGE_DAYS = 1100;
+
+    private final InvoiceRepository invoiceRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<InvoiceRollupResponse> getRollups(LocalDate from, LocalDate to, RollupBucket bucket, InvoiceStatus status) {
+
+        if (from == null || to == null || !from.isBefore(to))
+            throw new IllegalArgumentException("El rango de fechas es inválido: 'from' debe ser anterior a 'to'.");
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS)
+            throw new IllegalArgumentException("El rango de fechas no puede superar " + MAX_RANGE_DAYS + " días.");
+
+        return invoiceRepository.findRollups(from, to, bucket != null ? bucket : RollupBucket.DAY, status);
+    }
+
+    @Override
+    @Transactional
+    public int foldDeltas(int batchSize) {
+        return invoiceRepository.foldDeltas(batchSize);
+    }
+
+    // REPEATABLE READ por el mismo motivo que en order-ms: borrado de deltas y recuento sobre una sola instantánea
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuildChunk(LocalDate from, LocalDate to) {
+        invoiceRepository.rebuildRollups(from, to);
+    }
+}
@@ -0,0 +1,12 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceBulkIssueRequest;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceIssueRunResponse;
+
+import java.util.UUID;
+
+public interface InvoiceIssueRunService {
+    InvoiceIssueRunResponse startRun(InvoiceBulkIssueRequest request);
+    InvoiceIssueRunResponse getRun(UUID id);
+    boolean processNextChunk(int chunkSize); // false si no quedaba ninguna emisión pendiente
+}
@@ -0,0 +1,106 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceBulkIssueRequest;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceIssueRunResponse;
+import com.espe.edu.ec.billing_ms.mappers.InvoiceIssueRunMapper;
+import com.espe.edu.ec.billing_ms.models.InvoiceIssueRun;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.IssueRunStatus;
+import com.espe.edu.ec.billing_ms.repositories.InvoiceIssueRunRepository;
+import com.espe.edu.ec.billing_ms.repositories.InvoiceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InvoiceIssueRunServiceImpl implements InvoiceIssueRunService {
+
+    // Menor UUID posible: cursor inicial de una emisión
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final InvoiceIssueRunRepository invoiceIssueRunRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    @Override
+    @Transactional
+    public InvoiceIssueRunResponse startRun(InvoiceBulkIssueRequest request) {
+
+        if (request == null) throw new IllegalArgumentException("Datos de emisión inválidos.");
+
+        boolean explicitIds = request.getInvoiceIds() != null && !request.getInvoiceIds().isEmpty();
+        // Los tramos recorren la lista en orden de ID; se descartan duplicados
+        List<UUID> invoiceIds = explicitIds ? new ArrayList<>(new TreeSet<>(request.getInvoiceIds())) : new ArrayList<>();
+        String customerTaxId = explicitIds ? null : request.getCustomerTaxId();
+        // Una emisión por filtro abarca solo las facturas creadas hasta ahora (ver createdAt)
+        LocalDateTime now = LocalDateTime.now();
+        int totalCount = explicitIds
+                ? invoiceIds.size()
+                : Math.toIntExact(invoiceRepository.countByStatusAndCustomer(InvoiceStatus.DRAFT, customerTaxId, now));
+
+        InvoiceIssueRun run = InvoiceIssueRun.builder()
+                .status(totalCount == 0 ? IssueRunStatus.COMPLETED : IssueRunStatus.RUNNING)
+                .customerTaxId(customerTaxId)
+                .explicitIds(explicitIds)
+                .invoiceIds(invoiceIds)
+                .lastInvoiceId(FIRST_ID)
+                .totalCount(totalCount)
+                .createdAt(now)
+                .updatedAt(now)
+                .completedAt(totalCount == 0 ? now : null)
+                .build();
+
+        return InvoiceIssueRunMapper.entityToResponse(invoiceIssueRunRepository.save(run));
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InvoiceIssueRunResponse getRun(UUID id) {
+
+        InvoiceIssueRun run = invoiceIssueRunRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Emisión no encontrada con ID: " + id));
+        return InvoiceIssueRunMapper.entityToResponse(run);
+
+    }
+
+    @Override
+    @Transactional
+    public boolean processNextChunk(int chunkSize) {
+
+        List<InvoiceIssueRun> runs = invoiceIssueRunRepository.lockByStatus(IssueRunStatus.RUNNING, Limit.of(1));
+        if (runs.isEmpty()) return false;
+
+        InvoiceIssueRun run = runs.getFirst();
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> chunk = run.isExplicitIds()
+                ? invoiceIssueRunRepository.findItemsAfter(run.getId(), run.getLastInvoiceId(), Limit.of(chunkSize))
+                : invoiceRepository.findIdsByStatusAfter(InvoiceStatus.DRAFT, run.getCustomerTaxId(),
+                        run.getCreatedAt(), run.getLastInvoiceId(), Limit.of(chunkSize));
+
+        if (!chunk.isEmpty()) {
+            invoiceRepository.recordStatusChange(chunk, InvoiceStatus.DRAFT, InvoiceStatus.ISSUED);
+            int issued = invoiceRepository.issueByIds(chunk, InvoiceStatus.DRAFT, InvoiceStatus.ISSUED, now);
+            run.setIssuedCount(run.getIssuedCount() + issued);
+            run.setSkippedCount(run.getSkippedCount() + chunk.size() - issued);
+            run.setLastInvoiceId(chunk.getLast());
+        }
+        if (chunk.size() < chunkSize) {
+            run.setStatus(IssueRunStatus.COMPLETED);
+            run.setCompletedAt(now);
+            log.info("Emisión {} completada: {} emitidas, {} omitidas", run.getId(), run.getIssuedCount(), run.getSkippedCount());
+        }
+        run.setUpdatedAt(now);
+        return true;
+
+    }
+}
@@ -1,14 +1,19 @@
 package com.espe.edu.ec.billing_ms.services;
 
+import com.espe.edu.ec.billing_ms.dtos.InvoiceFilter;
+import com.espe.edu.ec.billing_ms.dtos.InvoicePageResponse;
 import com.espe.edu.ec.billing_ms.dtos.InvoiceRequest;
 import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
 
-import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface InvoiceService {
-    InvoiceResponse createInvoice(InvoiceRequest request);
+    InvoiceResponse createInvoice(InvoiceRequest request, String idempotencyKey); // idempotencyKey opcional
     InvoiceResponse issueInvoice(UUID id); // Pasa de DRAFT a ISSUED
     InvoiceResponse getInvoiceByOrderId(UUID orderId);
-    List<InvoiceResponse> getAllInvoices();
+    InvoicePageResponse getInvoices(InvoiceFilter filter, String cursor, int limit);
+    void streamInvoices(InvoiceFilter filter, Consumer<InvoiceResponse> consumer);
+    int generatePendingDocuments(int batchSize); // Genera el XML de facturas emitidas sin documento
+    byte[] getInvoiceXml(UUID id);
 }
\ No newline at end of file
@@ -1,42 +1,99 @@
 package com.espe.edu.ec.billing_ms.services;
 
+import com.espe.edu.ec.billing_ms.dtos.InvoiceCursor;
+import com.espe.edu.ec.billing_ms.dtos.InvoiceFilter;
+import com.espe.edu.ec.billing_ms.dtos.InvoicePageResponse;
 import com.espe.edu.ec.billing_ms.dtos.InvoiceRequest;
 import com.espe.edu.ec.billing_ms.dtos.InvoiceResponse;
-import com.espe.edu.ec.billing_ms.event_producers.OrderEventProducer;
+import com.espe.edu.ec.billing_ms.exceptions.IdempotencyConflictException;
+import com.espe.edu.ec.billing_ms.exceptions.InvoiceConflictException;
+import com.espe.edu.ec.billing_ms.mappers.InvoiceCursorMapper;
 import com.espe.edu.ec.billing_ms.mappers.InvoiceMapper;
 import com.espe.edu.ec.billing_ms.models.Invoice;
+import com.espe.edu.ec.billing_ms.models.InvoiceDocument;
 import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.repositories.InvoiceDocumentRepository;
 import com.espe.edu.ec.billing_ms.repositories.InvoiceRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class InvoiceServiceImpl implements InvoiceService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final InvoiceRepository invoiceRepository;
-    private final OrderEventProducer orderEventProducer;
+    private final InvoiceDocumentRepository invoiceDocumentRepository;
+    private final InvoiceXmlGenerator invoiceXmlGenerator;
+    private final OrderReplicaService orderReplicaService;
+    private final IdempotencyStore<InvoiceResponse> invoiceIdempotencyStore;
 
     @Override
     @Transactional
-    public InvoiceResponse createInvoice(InvoiceRequest request) {
+    public InvoiceResponse createInvoice(InvoiceRequest request, String idempotencyKey) {
+
+        String fingerprint = null;
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)
+                throw new IllegalArgumentException("La Idempotency-Key debe tener entre 1 y " + MAX_IDEMPOTENCY_KEY_LENGTH + " caracteres.");
+
+            fingerprint = IdempotencyStore.fingerprint(request);
+            Optional<InvoiceResponse> replay = invoiceIdempotencyStore.begin(idempotencyKey, fingerprint);
+            if (replay.isPresent()) return replay.get();
+
+            // Clave expulsada de memoria o usada en otra instancia: la fila ya creada es la respuesta
+            Optional<Invoice> existing = invoiceRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                // Filas sin huella: creadas antes de guardarla, no se pueden comparar
+                String storedFingerprint = existing.get().getIdempotencyFingerprint();
+                if (storedFingerprint != null && !storedFingerprint.equals(fingerprint))
+                    throw new IdempotencyConflictException("La Idempotency-Key ya se usó con una solicitud distinta.");
+                InvoiceResponse response = InvoiceMapper.entityToResponse(existing.get());
+                invoiceIdempotencyStore.complete(idempotencyKey, fingerprint, response);
+                return response;
+            }
+        }
 
         if (invoiceRepository.findByOrderId(request.getOrderId()).isPresent())
             throw new IllegalArgumentException("Ya existe una factura para la orden: " + request.getOrderId());
 
-        if(!orderEventProducer.orderExists(request.getOrderId()))
+        if(!orderReplicaService.orderExists(request.getOrderId()))
             throw new IllegalArgumentException("Orden inexistente: " + request.getOrderId());
 
         Invoice invoice = InvoiceMapper.requestToEntity(request);
-        
-        Invoice savedInvoice = invoiceRepository.save(invoice);
-        
-        return InvoiceMapper.entityToResponse(savedInvoice);
+        invoice.setIdempotencyKey(idempotencyKey);
+        invoice.setIdempotencyFingerprint(fingerprint);
+
+        Invoice savedInvoice;
+        try {
+            // flush inmediato: la verificación previa no evita la carrera entre solicitudes
+            // concurrentes; las restricciones UNIQUE sí, y fallan aquí y no en el commit
+            savedInvoice = invoiceRepository.saveAndFlush(invoice);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && Invoice.IDEMPOTENCY_KEY_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName()))
+                throw new IdempotencyConflictException("Hay una solicitud en curso con la misma Idempotency-Key.");
+            throw new IllegalArgumentException("Ya existe una factura para la orden: " + request.getOrderId());
+        }
+        invoiceRepository.recordCreated(List.of(savedInvoice.getId()));
+
+        InvoiceResponse response = InvoiceMapper.entityToResponse(savedInvoice);
+        if (idempotencyKey != null) invoiceIdempotencyStore.complete(idempotencyKey, fingerprint, response);
+        return response;
 
     }
 
@@ -44,17 +101,20 @@ public class InvoiceServiceImpl implements InvoiceService {
     @Transactional
     public InvoiceResponse issueInvoice(UUID id) {
 
-        Invoice invoice = invoiceRepository.findById(id)
+        Invoice invoice = invoiceRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new IllegalArgumentException("Factura no encontrada con ID: " + id));
 
+        // Con el bloqueo, el estado leído es el que se cambia: el delta de rollups coincide con la fila
         if (invoice.getStatus() != InvoiceStatus.DRAFT)
-            throw new IllegalStateException("Solo se pueden emitir facturas en estado DRAFT. Estado actual: " + invoice.getStatus());
-        
+            throw new InvoiceConflictException("Solo se pueden emitir facturas en estado DRAFT. Estado actual: " + invoice.getStatus());
+
+        invoiceRepository.recordStatusChange(List.of(id), InvoiceStatus.DRAFT, InvoiceStatus.ISSUED);
         invoice.setStatus(InvoiceStatus.ISSUED);
         invoice.setIssuedAt(LocalDateTime.now());
-        
-        // TODO: Complete XML data
-        // invoice.setXmlData(generateXml(...));
+
+        // Una sola factura: el XML se genera en la misma transacción. Las emisiones
+        // masivas lo dejan pendiente para InvoiceDocumentJob
+        invoiceDocumentRepository.save(buildDocument(invoice));
 
         Invoice updatedInvoice = invoiceRepository.save(invoice);
         return InvoiceMapper.entityToResponse(updatedInvoice);
@@ -62,6 +122,34 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
+    @Transactional
+    public int generatePendingDocuments(int batchSize) {
+
+        List<Invoice> pending = invoiceRepository.lockPendingDocuments(InvoiceStatus.ISSUED, Limit.of(batchSize));
+        if (pending.isEmpty()) return 0;
+
+        List<InvoiceDocument> documents = new ArrayList<>(pending.size());
+        for (Invoice invoice : pending) {
+            documents.add(buildDocument(invoice));
+        }
+        // Con hibernate.jdbc.batch_size los INSERT y UPDATE del lote viajan agrupados
+        invoiceDocumentRepository.saveAll(documents);
+        return pending.size();
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] getInvoiceXml(UUID id) {
+
+        return invoiceDocumentRepository.findById(id)
+                .map(InvoiceDocument::getXml)
+                .orElseThrow(() -> new IllegalArgumentException("La factura no tiene XML generado: " + id));
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public InvoiceResponse getInvoiceByOrderId(UUID orderId) {
 
         Invoice invoice = invoiceRepository.findByOrderId(orderId)
@@ -71,11 +159,60 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
-    public List<InvoiceResponse> getAllInvoices() {
-        
-        return invoiceRepository.findAll().stream()
-                .map(InvoiceMapper::entityToResponse)
-                .toList();
+    @Transactional(readOnly = true)
+    public InvoicePageResponse getInvoices(InvoiceFilter filter, String cursor, int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        validateFilter(filter);
+
+        // Se pide una fila extra para saber si existe una página siguiente sin hacer un COUNT
+        InvoiceCursor position = InvoiceCursorMapper.decode(cursor);
+        List<InvoiceResponse> invoices = invoiceRepository.findPage(filter, position, limit + 1);
+
+        boolean hasNext = invoices.size() > limit;
+        List<InvoiceResponse> page = hasNext ? invoices.subList(0, limit) : invoices;
+
+        return InvoicePageResponse.builder()
+                .invoices(page)
+                .nextCursor(hasNext ? InvoiceCursorMapper.encode(page.get(limit - 1)) : null)
+                .build();
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInvoices(InvoiceFilter filter, Consumer<InvoiceResponse> consumer) {
+
+        validateFilter(filter);
+        // Proyecciones, no entidades: el contexto de persistencia no crece con el resultado
+        try (Stream<InvoiceResponse> invoices = invoiceRepository.streamFiltered(filter)) {
+            invoices.forEach(consumer);
+        }
+
+    }
+
+    private static void validateFilter(InvoiceFilter filter) {
+
+        if (filter != null && filter.getIssuedFrom() != null && filter.getIssuedTo() != null
+                && !filter.getIssuedFrom().isBefore(filter.getIssuedTo()))
+            throw new IllegalArgumentException("issuedFrom debe ser anterior a issuedTo.");
+
+    }
+
+    private InvoiceDocument buildDocument(Invoice invoice) {
+
+        byte[] xml = invoiceXmlGenerator.generate(invoice);
+        LocalDateTime generatedAt = LocalDateTime.now();
+        // La entidad está gestionada: el UPDATE de xml_generated_at sale con el flush
+        invoice.setXmlGeneratedAt(generatedAt);
+
+        return InvoiceDocument.builder()
+                .invoiceId(invoice.getId())
+                .xml(xml)
+                .sizeBytes(xml.length)
+                .generatedAt(generatedAt)
+                .build();
 
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.models.Invoice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Genera el XML del comprobante electrónico (estructura tipo factura SRI) con StAX:
+ * los elementos se escriben directamente en el OutputStream, sin armar un DOM ni
+ * concatenar cadenas intermedias.
+ */
+@Component
+public class InvoiceXmlGenerator {
+
+    private static final String ENCODING = StandardCharsets.UTF_8.name();
+    private static final String DOCUMENT_VERSION = "1.1.0";
+    private static final DateTimeFormatter ISSUE_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // Tamaño típico de un comprobante; evita crecer el buffer varias veces
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+
+    // XMLOutputFactory es seguro para uso concurrente una vez configurado
+    private final XMLOutputFactory outputFactory = XMLOutputFactory.newFactory();
+    private final String issuerTaxId;
+    private final String issuerName;
+
+    public InvoiceXmlGenerator(@Value("${billing.issuer.tax-id:}") String issuerTaxId,
+                               @Value("${billing.issuer.name:}") String issuerName) {
+        this.issuerTaxId = issuerTaxId;
+        this.issuerName = issuerName;
+    }
+
+    public byte[] generate(Invoice invoice) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        write(invoice, buffer);
+        return buffer.toByteArray();
+    }
+
+    public void write(Invoice invoice, OutputStream out) {
+
+        if (invoice == null || invoice.getIssuedAt() == null)
+            throw new IllegalStateException("Solo se genera XML de facturas emitidas.");
+
+        try {
+            XMLStreamWriter xml = outputFactory.createXMLStreamWriter(out, ENCODING);
+            xml.writeStartDocument(ENCODING, "1.0");
+            xml.writeStartElement("factura");
+            xml.writeAttribute("id", "comprobante");
+            xml.writeAttribute("version", DOCUMENT_VERSION);
+
+            xml.writeStartElement("infoTributaria");
+            element(xml, "razonSocial", issuerName);
+            element(xml, "ruc", issuerTaxId);
+            element(xml, "codDoc", "01");
+            element(xml, "secuencial", invoice.getId().toString());
+            xml.writeEndElement();
+
+            xml.writeStartElement("infoFactura");
+            element(xml, "fechaEmision", ISSUE_DATE.format(invoice.getIssuedAt()));
+            element(xml, "identificacionComprador", invoice.getCustomerTaxId());
+            element(xml, "totalSinImpuestos", amount(invoice.getSubtotal()));
+            element(xml, "totalImpuesto", amount(invoice.getTaxAmount()));
+            element(xml, "importeTotal", amount(invoice.getTotal()));
+            element(xml, "moneda", "DOLAR");
+            xml.writeEndElement();
+
+            xml.writeStartElement("infoAdicional");
+            xml.writeStartElement("campoAdicional");
+            xml.writeAttribute("nombre", "orden");
+            xml.writeCharacters(invoice.getOrderId().toString());
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("No se pudo generar el XML de la factura " + invoice.getId(), e);
+        }
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String value) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(value != null ? value : "");
+        xml.writeEndElement();
+    }
+
+    private static String amount(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
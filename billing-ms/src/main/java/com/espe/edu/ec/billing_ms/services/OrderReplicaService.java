@@ -0,0 +1,12 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.dtos.OrderEventResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderReplicaService {
+    boolean orderExists(UUID orderId);
+    long getLastEventId();
+    void applyEvents(List<OrderEventResponse> events); // Aplica eventos y avanza el cursor en una transacción
+}
@@ -0,0 +1,102 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.dtos.OrderEventResponse;
+import com.espe.edu.ec.billing_ms.event_producers.OrderEventProducer;
+import com.espe.edu.ec.billing_ms.exceptions.OrderServiceUnavailableException;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.models.OrderReplica;
+import com.espe.edu.ec.billing_ms.models.ReplicationCursor;
+import com.espe.edu.ec.billing_ms.repositories.InvoiceRepository;
+import com.espe.edu.ec.billing_ms.repositories.OrderReplicaRepository;
+import com.espe.edu.ec.billing_ms.repositories.ReplicationCursorRepository;
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderReplicaServiceImpl implements OrderReplicaService {
+
+    public static final String ORDER_EVENTS_CURSOR = "order-events";
+    private static final String CANCELLED_ORDER_EVENT = "ORDER_CANCELLED";
+
+    private final OrderReplicaRepository orderReplicaRepository;
+    private final ReplicationCursorRepository replicationCursorRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final OrderEventProducer orderEventProducer;
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean orderExists(UUID orderId) {
+
+        if (orderReplicaRepository.existsById(orderId)) return true;
+
+        // Respaldo para pedidos aún no replicados (o anteriores al registro de eventos).
+        // Solo un 404 significa que no existe: cualquier otro fallo no permite afirmarlo
+        try {
+            return orderEventProducer.orderExists(orderId);
+        } catch (FeignException.NotFound e) {
+            return false;
+        } catch (FeignException e) {
+            log.warn("No se pudo verificar la orden {} en order-ms: {}", orderId, e.getMessage());
+            throw new OrderServiceUnavailableException("No se pudo verificar la orden en order-ms, intente más tarde.", e);
+        }
+    }
+
+    @Override
+    // Sin readOnly a propósito: un cursor leído de la réplica atrasada volvería a pedir eventos ya aplicados
+    @Transactional
+    public long getLastEventId() {
+        return replicationCursorRepository.findById(ORDER_EVENTS_CURSOR)
+                .map(ReplicationCursor::getPosition)
+                .orElse(0L);
+    }
+
+    @Override
+    @Transactional
+    public void applyEvents(List<OrderEventResponse> events) {
+
+        if (events.isEmpty()) return;
+
+        Map<UUID, OrderReplica> replicas = orderReplicaRepository
+                .findAllById(events.stream().map(OrderEventResponse::getOrderId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(OrderReplica::getOrderId, Function.identity()));
+
+        for (OrderEventResponse event : events) {
+            OrderReplica replica = replicas.computeIfAbsent(event.getOrderId(), orderId -> OrderReplica.builder()
+                    .orderId(orderId)
+                    .lastEventId(0L)
+                    .build());
+
+            if (event.getSequence() > replica.getLastEventId()) {
+                replica.setStatus(event.getOrderStatus());
+                replica.setLastEventId(event.getSequence());
+            }
+        }
+        orderReplicaRepository.saveAll(replicas.values());
+
+        // Un pedido cancelado no debe facturarse: se anulan sus borradores pendientes
+        List<UUID> cancelledOrders = events.stream()
+                .filter(event -> CANCELLED_ORDER_EVENT.equals(event.getEventType()))
+                .map(OrderEventResponse::getOrderId)
+                .toList();
+        if (!cancelledOrders.isEmpty()) {
+            invoiceRepository.recordStatusChangeByOrderIds(cancelledOrders, InvoiceStatus.DRAFT, InvoiceStatus.ANNULLED);
+            int annulled = invoiceRepository.updateStatusByOrderIds(cancelledOrders, InvoiceStatus.DRAFT, InvoiceStatus.ANNULLED);
+            if (annulled > 0) log.info("Facturas en borrador anuladas por cancelación de pedido: {}", annulled);
+        }
+
+        long position = events.get(events.size() - 1).getSequence();
+        replicationCursorRepository.save(new ReplicationCursor(ORDER_EVENTS_CURSOR, position));
+    }
+}
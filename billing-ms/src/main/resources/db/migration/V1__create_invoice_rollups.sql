@@ -0,0 +1,25 @@
+-- Totales diarios de facturas por estado (fecha de creación de la factura).
+-- Las transacciones de facturación solo insertan deltas, sin disputarse la fila del día;
+-- InvoiceRollupJob los suma periódicamente en invoice_daily_rollups. Un cambio de estado
+-- se registra como -1 en el estado de origen y +1 en el de destino.
+CREATE TABLE IF NOT EXISTS invoice_rollup_deltas (
+    id          bigserial     PRIMARY KEY,
+    bucket_date date          NOT NULL,
+    status      varchar(32)   NOT NULL,
+    invoices    bigint        NOT NULL,
+    subtotal    numeric(19,2) NOT NULL,
+    tax_amount  numeric(19,2) NOT NULL,
+    total       numeric(19,2) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_invoice_rollup_deltas_bucket_date ON invoice_rollup_deltas (bucket_date);
+
+CREATE TABLE IF NOT EXISTS invoice_daily_rollups (
+    bucket_date date          NOT NULL,
+    status      varchar(32)   NOT NULL,
+    invoices    bigint        NOT NULL DEFAULT 0,
+    subtotal    numeric(19,2) NOT NULL DEFAULT 0,
+    tax_amount  numeric(19,2) NOT NULL DEFAULT 0,
+    total       numeric(19,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, status)
+);
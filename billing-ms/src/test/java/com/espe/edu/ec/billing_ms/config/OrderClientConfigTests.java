@@ -0,0 +1,78 @@
+package com.espe.edu.ec.billing_ms.config;
+
+import com.espe.edu.ec.billing_ms.event_producers.OrderEventProducer;
+import com.sun.net.httpserver.HttpServer;
+import feign.Feign;
+import feign.RequestInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderClientConfigTests {
+
+	private final List<String> authorizations = new CopyOnWriteArrayList<>();
+	private HttpServer server;
+
+	@BeforeEach
+	void startOrderMs() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/orders", exchange -> {
+			authorizations.add(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+			byte[] body = (exchange.getRequestURI().getPath().startsWith("/orders/exists") ? "true" : "[]").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopOrderMs() {
+		server.stop(0);
+	}
+
+	@Test
+	void theOrderClientUsesThisConfiguration() {
+		FeignClient client = OrderEventProducer.class.getAnnotation(FeignClient.class);
+
+		assertArrayEquals(new Class<?>[] {OrderClientConfig.class}, client.configuration());
+	}
+
+	@Test
+	void sendsTheServiceTokenOnEveryCall() {
+		OrderEventProducer producer = client(new OrderClientConfig().orderAuthorizationInterceptor("token-de-servicio"));
+
+		producer.getOrderEvents(0, 10);
+		producer.orderExists(UUID.randomUUID());
+
+		assertEquals(List.of("Bearer token-de-servicio", "Bearer token-de-servicio"), authorizations);
+	}
+
+	@Test
+	void sendsNoHeaderWithoutToken() {
+		client(new OrderClientConfig().orderAuthorizationInterceptor("")).getOrderEvents(0, 10);
+
+		assertEquals(List.of("null"), authorizations);
+	}
+
+	private OrderEventProducer client(RequestInterceptor interceptor) {
+		return Feign.builder()
+				.contract(new SpringMvcContract())
+				.requestInterceptor(interceptor)
+				.decoder((response, type) -> type == boolean.class ? Boolean.TRUE : List.of())
+				.target(OrderEventProducer.class, "http://127.0.0.1:" + server.getAddress().getPort());
+	}
+}
@@ -0,0 +1,27 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * PostgreSQL embebido para los @DataJpaTest que prueban SQL nativo (FOR UPDATE, CTEs,
+ * ON CONFLICT). Flyway crea las tablas fuera del modelo JPA y Hibernate las entidades,
+ * igual que al arrancar el servicio.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class EmbeddedPostgresTestConfig {
+
+	@Bean(destroyMethod = "close")
+	EmbeddedPostgres embeddedPostgres() throws IOException {
+		return EmbeddedPostgres.start();
+	}
+
+	@Bean
+	DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+		return embeddedPostgres.getPostgresDatabase();
+	}
+}
@@ -0,0 +1,78 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.models.Invoice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EmbeddedPostgresTestConfig.class)
+class InvoiceRepositoryTests {
+
+	private static final String CUSTOMER = "1790012345001";
+	private static final UUID FIRST_ID = new UUID(0L, 0L);
+	private static final LocalDateTime RUN_STARTED_AT = LocalDateTime.now().minusHours(1);
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Invoice before;
+	private Invoice otherCustomer;
+
+	@BeforeEach
+	void createDrafts() {
+		before = save(CUSTOMER, RUN_STARTED_AT.minusMinutes(5));
+		otherCustomer = save("0912345678001", RUN_STARTED_AT.minusMinutes(5));
+		// Creado después de iniciar la emisión: queda fuera de su alcance
+		save(CUSTOMER, RUN_STARTED_AT.plusMinutes(5));
+		entityManager.clear();
+	}
+
+	@Test
+	void filteredRunOnlySeesDraftsCreatedBeforeItStarted() {
+		assertEquals(1L, invoiceRepository.countByStatusAndCustomer(InvoiceStatus.DRAFT, CUSTOMER, RUN_STARTED_AT));
+		assertEquals(List.of(before.getId()),
+				invoiceRepository.findIdsByStatusAfter(InvoiceStatus.DRAFT, CUSTOMER, RUN_STARTED_AT, FIRST_ID, Limit.of(10)));
+	}
+
+	@Test
+	void runWithoutCustomerCoversEveryEarlierDraft() {
+		assertEquals(2L, invoiceRepository.countByStatusAndCustomer(InvoiceStatus.DRAFT, null, RUN_STARTED_AT));
+		assertEquals(Set.of(before.getId(), otherCustomer.getId()),
+				Set.copyOf(invoiceRepository.findIdsByStatusAfter(InvoiceStatus.DRAFT, null, RUN_STARTED_AT, FIRST_ID, Limit.of(10))));
+	}
+
+	private Invoice save(String customerTaxId, LocalDateTime createdAt) {
+		Invoice invoice = invoiceRepository.saveAndFlush(Invoice.builder()
+				.orderId(UUID.randomUUID())
+				.customerTaxId(customerTaxId)
+				.subtotal(new BigDecimal("10.00"))
+				.taxAmount(new BigDecimal("1.50"))
+				.total(new BigDecimal("11.50"))
+				.status(InvoiceStatus.DRAFT)
+				.build());
+		entityManager.createNativeQuery("UPDATE invoices SET created_at = :createdAt WHERE id = :id")
+				.setParameter("createdAt", createdAt)
+				.setParameter("id", invoice.getId())
+				.executeUpdate();
+		return invoice;
+	}
+}
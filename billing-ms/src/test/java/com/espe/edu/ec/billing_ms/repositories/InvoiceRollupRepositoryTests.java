@@ -0,0 +1,123 @@
+package com.espe.edu.ec.billing_ms.repositories;
+
+import com.espe.edu.ec.billing_ms.dtos.InvoiceRollupResponse;
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.billing_ms.models.Invoice;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EmbeddedPostgresTestConfig.class)
+class InvoiceRollupRepositoryTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+	private static final LocalDate TOMORROW = TODAY.plusDays(1);
+
+	@Autowired
+	private InvoiceRepository invoiceRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@BeforeEach
+	void createAndTransitionInvoices() {
+		Invoice first = invoiceRepository.save(invoice("10.00", "1.50", "11.50"));
+		Invoice second = invoiceRepository.save(invoice("20.00", "3.00", "23.00"));
+		Invoice third = invoiceRepository.save(invoice("30.00", "4.50", "34.50"));
+		invoiceRepository.flush();
+		invoiceRepository.recordCreated(List.of(first.getId(), second.getId(), third.getId()));
+
+		issue(List.of(first.getId(), second.getId()));
+		// Ya emitida: ni el UPDATE condicional ni el delta la vuelven a contar
+		issue(List.of(first.getId()));
+
+		List<UUID> cancelledOrders = List.of(third.getOrderId());
+		invoiceRepository.recordStatusChangeByOrderIds(cancelledOrders, InvoiceStatus.DRAFT, InvoiceStatus.ANNULLED);
+		invoiceRepository.updateStatusByOrderIds(cancelledOrders, InvoiceStatus.DRAFT, InvoiceStatus.ANNULLED);
+	}
+
+	@Test
+	void readsPendingDeltasBeforeTheyAreFolded() {
+		assertExpectedTotals(invoiceRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+	}
+
+	@Test
+	void foldingInBatchesKeepsTheTotals() {
+		while (invoiceRepository.foldDeltas(2) > 0) {
+			// consolida hasta vaciar la tabla de deltas
+		}
+
+		assertEquals(0L, pendingDeltas());
+		assertExpectedTotals(invoiceRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+	}
+
+	@Test
+	void rebuildMatchesTheIncrementalTotals() {
+		invoiceRepository.foldDeltas(1);
+		invoiceRepository.rebuildRollups(TODAY, TOMORROW);
+
+		assertEquals(0L, pendingDeltas());
+		assertExpectedTotals(invoiceRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+	}
+
+	@Test
+	void filtersByStatus() {
+		List<InvoiceRollupResponse> issued = invoiceRepository.findRollups(TODAY, TOMORROW, RollupBucket.MONTH, InvoiceStatus.ISSUED);
+
+		assertEquals(1, issued.size());
+		assertEquals(TODAY.withDayOfMonth(1), issued.getFirst().getBucketStart());
+		assertEquals(2, issued.getFirst().getInvoices());
+	}
+
+	// Los borradores salieron todos de DRAFT: su grupo suma cero y no se devuelve
+	private void assertExpectedTotals(List<InvoiceRollupResponse> rollups) {
+		assertEquals(2, rollups.size());
+
+		InvoiceRollupResponse annulled = rollups.getFirst();
+		assertEquals(InvoiceStatus.ANNULLED, annulled.getStatus());
+		assertEquals(1, annulled.getInvoices());
+		assertEquals(new BigDecimal("34.50"), annulled.getTotal());
+
+		InvoiceRollupResponse issued = rollups.getLast();
+		assertEquals(InvoiceStatus.ISSUED, issued.getStatus());
+		assertEquals(2, issued.getInvoices());
+		assertEquals(new BigDecimal("30.00"), issued.getSubtotal());
+		assertEquals(new BigDecimal("4.50"), issued.getTaxAmount());
+		assertEquals(new BigDecimal("34.50"), issued.getTotal());
+	}
+
+	private void issue(List<UUID> ids) {
+		invoiceRepository.recordStatusChange(ids, InvoiceStatus.DRAFT, InvoiceStatus.ISSUED);
+		invoiceRepository.issueByIds(ids, InvoiceStatus.DRAFT, InvoiceStatus.ISSUED, LocalDateTime.now());
+	}
+
+	private long pendingDeltas() {
+		return ((Number) entityManager.createNativeQuery("SELECT count(*) FROM invoice_rollup_deltas").getSingleResult()).longValue();
+	}
+
+	private static Invoice invoice(String subtotal, String taxAmount, String total) {
+		return Invoice.builder()
+				.orderId(UUID.randomUUID())
+				.customerTaxId("1790012345001")
+				.subtotal(new BigDecimal(subtotal))
+				.taxAmount(new BigDecimal(taxAmount))
+				.total(new BigDecimal(total))
+				.status(InvoiceStatus.DRAFT)
+				.build();
+	}
+}
@@ -0,0 +1,107 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.model_enums.InvoiceStatus;
+import com.espe.edu.ec.billing_ms.models.Invoice;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvoiceXmlGeneratorTests {
+
+	private static final String ISSUER_NAME = "Envíos <Rápidos> & \"Cía\" 'Ltda'";
+
+	private final InvoiceXmlGenerator generator = new InvoiceXmlGenerator("1790012345001", ISSUER_NAME);
+
+	@Test
+	void writesAWellFormedDocument() throws Exception {
+		Invoice invoice = issued("10", "1.5", "11.5");
+
+		Document document = parse(generator.generate(invoice));
+
+		Element root = document.getDocumentElement();
+		assertEquals("factura", root.getTagName());
+		assertEquals("comprobante", root.getAttribute("id"));
+		assertEquals("1.1.0", root.getAttribute("version"));
+		assertEquals("1790012345001", text(document, "ruc"));
+		assertEquals(invoice.getId().toString(), text(document, "secuencial"));
+		assertEquals("05/03/2026", text(document, "fechaEmision"));
+		assertEquals("0912345678001", text(document, "identificacionComprador"));
+		assertEquals(invoice.getOrderId().toString(), text(document, "campoAdicional"));
+		assertEquals("orden", ((Element) document.getElementsByTagName("campoAdicional").item(0)).getAttribute("nombre"));
+	}
+
+	@Test
+	void escapesMarkupInTextValues() throws Exception {
+		Invoice invoice = issued("10", "1.5", "11.5");
+		invoice.setCustomerTaxId("09</identificacionComprador><x>");
+
+		byte[] xml = generator.generate(invoice);
+		String raw = new String(xml, StandardCharsets.UTF_8);
+		Document document = parse(xml);
+
+		assertFalse(raw.contains("<x>"));
+		assertTrue(raw.contains("&lt;Rápidos"));
+		assertTrue(raw.contains("&amp; "));
+		assertEquals(ISSUER_NAME, text(document, "razonSocial"));
+		assertEquals("09</identificacionComprador><x>", text(document, "identificacionComprador"));
+	}
+
+	@Test
+	void formatsAmountsWithTwoDecimals() throws Exception {
+		Document document = parse(generator.generate(issued("1E+3", "0.125", "1000.1249")));
+
+		assertEquals("1000.00", text(document, "totalSinImpuestos"));
+		assertEquals("0.13", text(document, "totalImpuesto"));
+		assertEquals("1000.12", text(document, "importeTotal"));
+		assertEquals("DOLAR", text(document, "moneda"));
+	}
+
+	@Test
+	void writesEmptyIssuerFieldsWhenNotConfigured() throws Exception {
+		Document document = parse(new InvoiceXmlGenerator("", null).generate(issued("10", "1.5", "11.5")));
+
+		assertEquals("", text(document, "ruc"));
+		assertEquals("", text(document, "razonSocial"));
+	}
+
+	@Test
+	void rejectsInvoicesThatWereNotIssued() {
+		Invoice draft = issued("10", "1.5", "11.5");
+		draft.setIssuedAt(null);
+
+		assertThrows(IllegalStateException.class, () -> generator.generate(draft));
+	}
+
+	private static Invoice issued(String subtotal, String taxAmount, String total) {
+		return Invoice.builder()
+				.id(UUID.randomUUID())
+				.orderId(UUID.randomUUID())
+				.customerTaxId("0912345678001")
+				.subtotal(new BigDecimal(subtotal))
+				.taxAmount(new BigDecimal(taxAmount))
+				.total(new BigDecimal(total))
+				.status(InvoiceStatus.ISSUED)
+				.issuedAt(LocalDateTime.of(2026, 3, 5, 23, 59))
+				.build();
+	}
+
+	private static Document parse(byte[] xml) throws Exception {
+		return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+	}
+
+	private static String text(Document document, String tag) {
+		return document.getElementsByTagName(tag).item(0).getTextContent();
+	}
+}
@@ -0,0 +1,74 @@
+package com.espe.edu.ec.billing_ms.services;
+
+import com.espe.edu.ec.billing_ms.event_producers.OrderEventProducer;
+import com.espe.edu.ec.billing_ms.exceptions.OrderServiceUnavailableException;
+import com.espe.edu.ec.billing_ms.repositories.InvoiceRepository;
+import com.espe.edu.ec.billing_ms.repositories.OrderReplicaRepository;
+import com.espe.edu.ec.billing_ms.repositories.ReplicationCursorRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OrderReplicaServiceImplTests {
+
+	private final OrderReplicaRepository orderReplicaRepository = mock(OrderReplicaRepository.class);
+	private final OrderEventProducer orderEventProducer = mock(OrderEventProducer.class);
+	private final OrderReplicaServiceImpl service = new OrderReplicaServiceImpl(
+		orderReplicaRepository, mock(ReplicationCursorRepository.class), mock(InvoiceRepository.class), orderEventProducer);
+
+	private final UUID orderId = UUID.randomUUID();
+
+	@Test
+	void replicatedOrderExistsWithoutCallingOrderMs() {
+		when(orderReplicaRepository.existsById(orderId)).thenReturn(true);
+
+		assertTrue(service.orderExists(orderId));
+		verifyNoInteractions(orderEventProducer);
+	}
+
+	@Test
+	void fallsBackToOrderMsForOrdersNotYetReplicated() {
+		when(orderEventProducer.orderExists(orderId)).thenReturn(true);
+
+		assertTrue(service.orderExists(orderId));
+	}
+
+	@Test
+	void notFoundMeansTheOrderDoesNotExist() {
+		when(orderEventProducer.orderExists(orderId)).thenThrow(error(404));
+
+		assertFalse(service.orderExists(orderId));
+	}
+
+	@Test
+	void serverErrorsAreReportedAsUnavailable() {
+		when(orderEventProducer.orderExists(orderId)).thenThrow(error(500));
+
+		assertThrows(OrderServiceUnavailableException.class, () -> service.orderExists(orderId));
+	}
+
+	@Test
+	void rejectedCallsAreNotTakenAsMissingOrders() {
+		when(orderEventProducer.orderExists(orderId)).thenThrow(error(401));
+
+		assertThrows(OrderServiceUnavailableException.class, () -> service.orderExists(orderId));
+	}
+
+	private static FeignException error(int status) {
+		Request request = Request.create(Request.HttpMethod.POST, "http://order-ms/orders/exists", Map.of(), null, StandardCharsets.UTF_8, null);
+		Response response = Response.builder().status(status).reason("error").request(request).headers(Map.of()).build();
+		return FeignException.errorStatus("OrderEventProducer#orderExists", response);
+	}
+}
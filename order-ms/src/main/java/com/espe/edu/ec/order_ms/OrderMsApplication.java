@@ -2,12 +2,16 @@ package com.espe.edu.ec.order_ms;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @Configuration
 @EnableJpaAuditing
+@EnableFeignClients
+@EnableScheduling
 public class OrderMsApplication {
 
 	public static void main(String[] args) {
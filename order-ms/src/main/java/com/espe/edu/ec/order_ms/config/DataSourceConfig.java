@@ -0,0 +1,70 @@
+package com.espe.edu.ec.order_ms.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * DataSource con réplica de lectura opcional (datasource.replica.enabled).
+ *
+ * LazyConnectionDataSourceProxy abre la conexión real en la primera sentencia, cuando ya
+ * se sabe si la transacción es de solo lectura: las @Transactional(readOnly = true) usan
+ * la réplica (con respaldo en el primario, ver ReplicaFallbackDataSource) y el resto el
+ * primario. Cada pool publica sus propias métricas hikaricp.* etiquetadas con su nombre.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = new HikariDataSource();
+        // La réplica nunca recibe escrituras; el driver lo hace cumplir
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") HikariDataSource replica,
+                                               @Value("${datasource.replica.max-lag:5s}") Duration maxLag,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replica, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replica,
+                                 ObjectProvider<ReplicaLagMonitor> monitor,
+                                 MeterRegistry meterRegistry) {
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        HikariDataSource replicaPool = replica.getIfAvailable();
+        if (replicaPool != null)
+            dataSource.setReadOnlyDataSource(new ReplicaFallbackDataSource(primary, replicaPool, monitor.getObject(), meterRegistry));
+        return dataSource;
+    }
+}
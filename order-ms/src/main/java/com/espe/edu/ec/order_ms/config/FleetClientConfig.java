@@ -0,0 +1,18 @@
+package com.espe.edu.ec.order_ms.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import feign.RequestInterceptor;
+
+// Sin @Configuration: solo aplica al cliente Feign de Fleet (DriverEventProducer)
+public class FleetClientConfig {
+
+    @Bean
+    public RequestInterceptor fleetAuthorizationInterceptor(@Value("${fleet.service-token:}") String serviceToken) {
+        return template -> {
+            if (!serviceToken.isBlank())
+                template.header("Authorization", "Bearer " + serviceToken);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package com.espe.edu.ec.order_ms.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.services.IdempotencyStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore<OrderResponse> orderIdempotencyStore(MeterRegistry meterRegistry,
+            @Value("${orders.idempotency.max-entries:50000}") int maxEntries,
+            @Value("${orders.idempotency.ttl:24h}") Duration ttl) {
+        return new IdempotencyStore<>("orders", meterRegistry, maxEntries, ttl);
+    }
+}
@@ -5,6 +5,7 @@ import com.nimbusds.jose.proc.JWSKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
 import com.nimbusds.jose.proc.SingleKeyJWSKeySelector;
 import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,25 +34,30 @@ public class SecurityConfig {
     @Value("${jwt.public-key-path}")
     private Resource publicKeyResource;
 
+    @Value("${jwt.cache.max-entries:100000}")
+    private int cacheMaxEntries;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         // Endpoints públicos (Swagger y Docs)
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // Salud y scraping de métricas: solo en el puerto de gestión, que Kong no enruta
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
                         // Cualquier otro endpoint requiere token válido
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.decoder(jwtDecoder()))
+                        .jwt(jwt -> jwt.decoder(jwtDecoder))
                 )
                 .build();
     }
 
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
         try {
             // 1. Leer y limpiar el PEM
             String keyContent = FileCopyUtils.copyToString(new InputStreamReader(publicKeyResource.getInputStream()));
@@ -72,7 +78,8 @@ public class SecurityConfig {
                     new SingleKeyJWSKeySelector<>(JWSAlgorithm.ES256, publicKey);
             jwtProcessor.setJWSKeySelector(jwsKeySelector);
 
-            return new NimbusJwtDecoder(jwtProcessor);
+            // 4. Cachear los tokens ya verificados: la firma ECDSA se valida una vez por token
+            return new CachingJwtDecoder(new NimbusJwtDecoder(jwtProcessor), cacheMaxEntries, meterRegistry);
 
         } catch (Exception e) {
             throw new IllegalStateException("Error al cargar la llave pública EC", e);
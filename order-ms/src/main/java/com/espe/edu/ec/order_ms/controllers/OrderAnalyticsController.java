@@ -0,0 +1,55 @@
+package com.espe.edu.ec.order_ms.controllers;
+
+import com.espe.edu.ec.order_ms.dtos.OrderRollupResponse;
+import com.espe.edu.ec.order_ms.jobs.OrderRollupJob;
+import com.espe.edu.ec.order_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.services.OrderAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/orders/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analítica de pedidos", description = "Totales de pedidos e ingresos por intervalo de tiempo y tipo de vehículo")
+@SecurityRequirement(name = "bearerAuth")
+public class OrderAnalyticsController {
+
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final OrderRollupJob orderRollupJob;
+
+    @Operation(summary = "Ingresos y volumen por intervalo", description = "Pedidos creados en [from, to) agrupados por DAY, WEEK o MONTH y tipo de vehículo. Se sirve desde los rollups, sin recorrer los pedidos. Requiere scope: order:view")
+    @GetMapping("/revenue")
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<List<OrderRollupResponse>> getRevenue(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") RollupBucket bucket,
+            @RequestParam(required = false) VehicleType vehicleType) {
+        return ResponseEntity.ok(orderAnalyticsService.getRollups(from, to, bucket, vehicleType));
+    }
+
+    @Operation(summary = "Reconstruir rollups", description = "Recalcula [from, to) desde los pedidos (incluidos los archivados) en tramos paralelos. Responde 202 y corre en segundo plano; 409 si ya hay una reconstrucción en curso. Requiere scope: order:update")
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAuthority('SCOPE_order:update')")
+    public ResponseEntity<Void> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        if (!from.isBefore(to))
+            throw new IllegalArgumentException("El rango de fechas es inválido: 'from' debe ser anterior a 'to'.");
+        return orderRollupJob.startRebuild(from, to)
+            ? ResponseEntity.status(HttpStatus.ACCEPTED).build()
+            : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -1,25 +1,52 @@
 package com.espe.edu.ec.order_ms.controllers;
 
 import com.espe.edu.ec.order_ms.dtos.AssignDriverRequest;
+import com.espe.edu.ec.order_ms.dtos.CustomerOrderPage;
 import com.espe.edu.ec.order_ms.dtos.DeliveryOrderPatchRequest;
+import com.espe.edu.ec.order_ms.dtos.DispatchRequest;
+import com.espe.edu.ec.order_ms.dtos.DispatchResponse;
+import com.espe.edu.ec.order_ms.dtos.NearbyOrderResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderBatchRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderBatchResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderBulkStatusRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderBulkStatusResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderExistsRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderExistsResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderPageResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteResponse;
 import com.espe.edu.ec.order_ms.dtos.OrderRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderStatusRequest;
+import com.espe.edu.ec.order_ms.model_enums.AddressType;
+import com.espe.edu.ec.order_ms.services.CustomerOrderHistoryService;
+import com.espe.edu.ec.order_ms.services.DispatchService;
+import com.espe.edu.ec.order_ms.services.OrderQuoteService;
 import com.espe.edu.ec.order_ms.services.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/orders")
@@ -29,23 +56,98 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderQuoteService orderQuoteService;
+    private final DispatchService dispatchService;
+    private final CustomerOrderHistoryService customerOrderHistoryService;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "Crear pedido", description = "Requiere scope: order:create")
+    @Operation(summary = "Crear pedido", description = "Con el header Idempotency-Key, un reintento con la misma clave devuelve el pedido ya creado en lugar de crear otro. Requiere scope: order:create")
     @PostMapping
     @PreAuthorize("hasAuthority('SCOPE_order:create')")
-    public ResponseEntity<OrderResponse> createOrder(@RequestBody @Valid OrderRequest orderRequest) {
-        OrderResponse response = orderService.createOrder(orderRequest);
+    public ResponseEntity<OrderResponse> createOrder(@RequestBody @Valid OrderRequest orderRequest,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        OrderResponse response = orderService.createOrder(orderRequest, idempotencyKey);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
-    // 1. OBTENER TODOS LOS PEDIDOS -> Solo ADMIN (order:view)
-    @Operation(summary = "Listar todos los pedidos", description = "Exclusivo para ADMIN. Requiere scope: order:view")
+    @Operation(summary = "Crear pedidos en lote", description = "Valida, tarifa y persiste varios pedidos en una sola transacción. Devuelve el resultado por pedido. Requiere scope: order:create")
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('SCOPE_order:create')")
+    public ResponseEntity<OrderBatchResponse> createOrders(@RequestBody @Valid OrderBatchRequest batchRequest) {
+        OrderBatchResponse response = orderService.createOrders(batchRequest.getOrders());
+        HttpStatus status = response.getFailedCount() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(response, status);
+    }
+
+    @Operation(summary = "Cotizar rutas en lote (NDJSON)", description = "Tarifa pares origen/destino sin crear pedidos. Devuelve una cotización JSON por línea, en el orden recibido. Requiere scope: order:create")
+    @PostMapping(value = "/quotes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_order:create')")
+    public ResponseEntity<StreamingResponseBody> quoteRoutes(@RequestBody @Valid OrderQuoteRequest quoteRequest) {
+        Stream<OrderQuoteResponse> quotes = orderQuoteService.quoteRoutes(quoteRequest);
+        StreamingResponseBody body = outputStream -> quotes.forEach(quote -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(quote));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // 1. OBTENER TODOS LOS PEDIDOS (paginado por cursor) -> Solo ADMIN (order:view)
+    @Operation(summary = "Listar todos los pedidos", description = "Exclusivo para ADMIN. Paginación keyset: enviar 'nextCursor' de la respuesta previa como 'cursor'. Requiere scope: order:view")
     @GetMapping
     @PreAuthorize("hasAuthority('SCOPE_order:view')")
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        List<OrderResponse> orders = orderService.getOrders();
-        if (orders.isEmpty()) return ResponseEntity.noContent().build(); 
-        return ResponseEntity.ok(orders); 
+    public ResponseEntity<OrderPageResponse> getAllOrders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        OrderPageResponse page = orderService.getOrders(cursor, limit);
+        if (page.getOrders().isEmpty()) return ResponseEntity.noContent().build(); 
+        return ResponseEntity.ok(page); 
+    }
+
+    // 1.1 EXPORTAR TODOS LOS PEDIDOS EN NDJSON -> Solo ADMIN (order:view)
+    @Operation(summary = "Exportar todos los pedidos (NDJSON)", description = "Un pedido JSON por línea, escrito a medida que se lee de la base. Requiere scope: order:view")
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        StreamingResponseBody body = outputStream -> orderService.streamOrders(order -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(order));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Pedidos dentro de un radio", description = "Pedidos cuya dirección de recogida (o de entrega, con addressType=DELIVERY) está a radiusKm o menos del punto, ordenados por distancia. Requiere scope: order:view")
+    @GetMapping("/nearby")
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<List<NearbyOrderResponse>> getOrdersNearby(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "PICKUP") AddressType addressType,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<NearbyOrderResponse> orders = orderService.findOrdersWithinRadius(latitude, longitude, radiusKm, addressType, limit);
+        if (orders.isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(orders);
+    }
+
+    @Operation(summary = "Pedidos sin asignar más cercanos", description = "Pedidos CREATED sin conductor, ordenados por distancia de recogida al punto (p. ej. la ubicación del conductor). Requiere scope: order:view")
+    @GetMapping("/nearest-unassigned")
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<List<NearbyOrderResponse>> getNearestUnassignedOrders(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<NearbyOrderResponse> orders = orderService.findNearestUnassignedOrders(latitude, longitude, radiusKm, limit);
+        if (orders.isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(orders);
     }
 
     // 2. OBTENER PEDIDO POR ID -> Solo ADMIN (order:view)
@@ -58,12 +160,15 @@ public class OrderController {
     }
 
     // 3. y 4. OBTENER PEDIDOS POR CLIENTE -> Cliente (order:view_own) + Validación de Token
-    @Operation(summary = "Listar pedidos de un cliente", description = "Exclusivo para el Cliente dueño de los datos.")
+    @Operation(summary = "Listar pedidos de un cliente", description = "Exclusivo para el Cliente dueño de los datos. Del más reciente al más antiguo, paginado por cursor. Soporta If-None-Match: responde 304 si la página no cambió.")
     @GetMapping("/customer/{customerId}")
     @PreAuthorize("hasAuthority('SCOPE_order:view_own')")
-    public ResponseEntity<List<OrderResponse>> getOrdersByCustomer(
+    public ResponseEntity<OrderPageResponse> getOrdersByCustomer(
             @PathVariable UUID customerId,
-            @AuthenticationPrincipal Jwt jwt) { // Inyectamos el Token decodificado
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal Jwt jwt, // Inyectamos el Token decodificado
+            WebRequest webRequest) {
 
         // VALIDACIÓN DE SEGURIDAD:
         // Extraemos el 'user_id' del payload del token y lo comparamos con el path variable
@@ -73,12 +178,35 @@ public class OrderController {
             throw new AccessDeniedException("No tienes permiso para ver los pedidos de otro cliente.");
         }
 
-        List<OrderResponse> orders = orderService.getOrdersByCustomer(customerId);
+        CustomerOrderPage result = customerOrderHistoryService.getOrdersByCustomer(customerId, cursor, limit);
+        // Compara con If-None-Match; si coincide, Spring ya dejó la respuesta en 304 con el ETag
+        if (webRequest.checkNotModified(result.etag())) return null;
+
+        if (result.page().getOrders().isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok().eTag(result.etag()).body(result.page());
+    }
+
+    @Operation(summary = "Listar pedidos archivados de un cliente", description = "Pedidos finales que ya salieron de la tabla activa, creados en [from, to) (máximo 366 días), del más reciente al más antiguo. Exclusivo para el Cliente dueño de los datos.")
+    @GetMapping("/customer/{customerId}/archive")
+    @PreAuthorize("hasAuthority('SCOPE_order:view_own')")
+    public ResponseEntity<List<OrderResponse>> getArchivedOrdersByCustomer(
+            @PathVariable UUID customerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal Jwt jwt) {
+
+        String tokenUserId = jwt.getClaimAsString("user_id");
+        if (tokenUserId == null || !tokenUserId.equals(customerId.toString())) {
+            throw new AccessDeniedException("No tienes permiso para ver los pedidos de otro cliente.");
+        }
+
+        List<OrderResponse> orders = orderService.getArchivedOrdersByCustomer(customerId, from, to, limit);
         if (orders.isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(orders);
     }
 
-    @Operation(summary = "Actualizar pedido", description = "Requiere scope: order:update")
+    @Operation(summary = "Actualizar pedido", description = "Solo pedidos CREATED. Responde 409 si el pedido cambió de estado o fue modificado concurrentemente. Requiere scope: order:update")
     @PatchMapping("/{id}")
     @PreAuthorize("hasAuthority('SCOPE_order:update')")
     public ResponseEntity<OrderResponse> patchOrder(
@@ -88,7 +216,7 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Cancelar pedido", description = "Requiere scope: order:update")
+    @Operation(summary = "Cancelar pedido", description = "Solo pedidos CREATED, PICKED_UP o con cancelación en curso; 409 si el estado actual no lo permite. Requiere scope: order:update")
     @PostMapping("/{id}/cancel")
     @PreAuthorize("hasAuthority('SCOPE_order:update')")
     public ResponseEntity<Void> cancelOrder(@PathVariable UUID id) {
@@ -96,18 +224,43 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Cambiar estado del pedido", description = "Aplica una transición válida según la máquina de estados (p. ej. CREATED -> PICKED_UP -> IN_ROUTE -> DELIVERED). 409 si el estado actual no la permite o el pedido cambió concurrentemente. Requiere scope: order:update")
+    @PostMapping("/{id}/status")
+    @PreAuthorize("hasAuthority('SCOPE_order:update')")
+    public ResponseEntity<Void> transitionOrder(@PathVariable UUID id, @RequestBody @Valid OrderStatusRequest request) {
+        orderService.transitionOrder(id, request.getStatus());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Cambiar estado en lote", description = "Aplica la misma transición a varios pedidos. Devuelve cuáles cambiaron, cuáles se rechazaron y cuáles no existen. Requiere scope: order:update")
+    @PostMapping("/status")
+    @PreAuthorize("hasAuthority('SCOPE_order:update')")
+    public ResponseEntity<OrderBulkStatusResponse> transitionOrders(@RequestBody @Valid OrderBulkStatusRequest request) {
+        return ResponseEntity.ok(orderService.transitionOrders(request.getIds(), request.getStatus()));
+    }
+
     @Operation(summary = "Verificar existencia (Interno)", description = "Usado por microservicio de Billing.")
     @PostMapping("/exists/{id}")
     @PreAuthorize("hasAuthority('SCOPE_order:view')") 
     public boolean orderExists(@PathVariable UUID id) {
-        try {
-            return orderService.orderExists(id);
-        } catch (Exception e) {
-            return false;
-        }
+        return orderService.orderExists(id);
+    }
+
+    @Operation(summary = "Verificar existencia (HEAD)", description = "200 si el pedido existe, 404 si no. No devuelve cuerpo. Requiere scope: order:view")
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<Void> headOrder(@PathVariable UUID id) {
+        return orderService.orderExists(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 
-    @Operation(summary = "Asignar conductor y vehículo", description = "Permite a Administradores y Supervisores asignar los recursos de transporte a una orden.")
+    @Operation(summary = "Verificar existencia en lote (Interno)", description = "Devuelve cuáles de los IDs enviados existen. Requiere scope: order:view")
+    @PostMapping("/exists")
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<OrderExistsResponse> ordersExist(@RequestBody @Valid OrderExistsRequest request) {
+        return ResponseEntity.ok(new OrderExistsResponse(orderService.findExistingOrderIds(request.getIds())));
+    }
+
+    @Operation(summary = "Asignar conductor y vehículo", description = "Permite a Administradores y Supervisores asignar los recursos de transporte a una orden. 409 si la orden ya finalizó.")
     @PatchMapping("/{id}/assign")
     @PreAuthorize("hasAuthority('SCOPE_order:update')")
     public ResponseEntity<OrderResponse> assignDriverAndVehicle(
@@ -117,4 +270,11 @@ public class OrderController {
         OrderResponse response = orderService.assignDriverAndVehicle(id, request);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Despacho en lote", description = "Empareja conductores disponibles con pedidos CREATED sin asignar (GREEDY u OPTIMAL) y aplica todas las asignaciones en una transacción. Requiere scope: order:update")
+    @PostMapping("/dispatch")
+    @PreAuthorize("hasAuthority('SCOPE_order:update')")
+    public ResponseEntity<DispatchResponse> dispatchOrders(@RequestBody @Valid DispatchRequest request) {
+        return ResponseEntity.ok(dispatchService.dispatchOrders(request));
+    }
+}
@@ -0,0 +1,32 @@
+package com.espe.edu.ec.order_ms.controllers;
+
+import com.espe.edu.ec.order_ms.dtos.OrderEventResponse;
+import com.espe.edu.ec.order_ms.services.OrderEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/orders/events")
+@RequiredArgsConstructor
+@Tag(name = "Eventos de pedidos", description = "Registro de cambios de pedidos para replicación en otros microservicios")
+@SecurityRequirement(name = "bearerAuth")
+public class OrderEventController {
+
+    private final OrderEventService orderEventService;
+
+    @Operation(summary = "Leer eventos de pedidos (Interno)", description = "Eventos con posición (sequence) mayor a 'after', en orden de confirmación. Usado por Billing para mantener su índice local de pedidos.")
+    @GetMapping
+    @PreAuthorize("hasAuthority('SCOPE_order:view')")
+    public ResponseEntity<List<OrderEventResponse>> getEvents(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(orderEventService.getEventsAfter(after, limit));
+    }
+}
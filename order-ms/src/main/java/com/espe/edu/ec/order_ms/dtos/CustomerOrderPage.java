@@ -0,0 +1,11 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+/**
+ * Página del historial de un cliente junto con su ETag, calculado a partir de los
+ * IDs y versiones de los pedidos que contiene.
+ */
+public record CustomerOrderPage(
+    OrderPageResponse page,
+    String etag
+) {
+}
@@ -0,0 +1,22 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchAssignment {
+
+    private UUID orderId;
+    private UUID driverId;
+    private String vehicleId;
+    // Distancia del conductor a la dirección de recogida
+    private Double distanceKm;
+
+}
@@ -0,0 +1,33 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Address;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchDriverRequest {
+
+    @NotNull(message = "El ID del conductor es obligatorio")
+    private UUID driverId;
+
+    @NotBlank(message = "El ID del vehículo es obligatorio")
+    private String vehicleId;
+
+    @NotNull(message = "El tipo de vehículo es obligatorio.")
+    private VehicleType vehicleType;
+
+    @NotNull(message = "La ubicación del conductor es obligatoria.")
+    private Address.Coordinates location;
+
+}
@@ -0,0 +1,33 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+
+import com.espe.edu.ec.order_ms.model_enums.DispatchMode;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchRequest {
+
+    @NotNull(message = "La lista de conductores es obligatoria.")
+    @NotEmpty(message = "La lista de conductores debe contener al menos un elemento.")
+    @Size(max = 500, message = "No se pueden despachar más de 500 conductores por solicitud.")
+    @Valid
+    private List<DispatchDriverRequest> drivers;
+
+    // Opcionales: por defecto GREEDY, 10 km hasta la recogida y el presupuesto configurado
+    private DispatchMode mode;
+    private Double maxDistanceKm;
+    private Long timeBudgetMs;
+
+}
@@ -0,0 +1,28 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.model_enums.DispatchMode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchResponse {
+
+    // Modo efectivamente aplicado: OPTIMAL cae a GREEDY si se agota el presupuesto de tiempo
+    private DispatchMode mode;
+    private boolean timedOut;
+    private int candidateOrders;
+    private int assignedCount;
+    private Double totalDistanceKm;
+    private List<DispatchAssignment> assignments;
+    private List<UUID> unassignedDriverIds;
+
+}
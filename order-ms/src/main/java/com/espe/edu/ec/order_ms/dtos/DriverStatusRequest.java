@@ -0,0 +1,15 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cuerpo de PATCH /api/driver/{id}/status en Fleet Service (AVAILABLE, BUSY, ...)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverStatusRequest {
+
+    private String status;
+
+}
@@ -0,0 +1,18 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyOrderResponse {
+
+    // Distancia en km desde el punto consultado a la dirección buscada
+    private Double distanceKm;
+    private OrderResponse order;
+
+}
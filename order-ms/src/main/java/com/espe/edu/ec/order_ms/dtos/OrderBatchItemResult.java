@@ -0,0 +1,20 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchItemResult {
+
+    // Posición del pedido dentro del lote recibido
+    private int index;
+    private boolean created;
+    private OrderResponse order;
+    private String error;
+
+}
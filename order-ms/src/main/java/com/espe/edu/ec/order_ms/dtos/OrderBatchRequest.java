@@ -0,0 +1,25 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchRequest {
+
+    // Sin @Valid: cada pedido se valida por separado para reportar errores por item
+    @NotNull(message = "La lista de pedidos es obligatoria.")
+    @NotEmpty(message = "La lista de pedidos debe contener al menos un elemento.")
+    @Size(max = 1000, message = "Un lote no puede superar los 1000 pedidos.")
+    private List<OrderRequest> orders;
+
+}
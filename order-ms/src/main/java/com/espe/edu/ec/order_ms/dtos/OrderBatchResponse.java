@@ -0,0 +1,20 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchResponse {
+
+    private int createdCount;
+    private int failedCount;
+    private List<OrderBatchItemResult> results;
+
+}
@@ -0,0 +1,30 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBulkStatusRequest {
+
+    @NotNull(message = "La lista de IDs es obligatoria.")
+    @NotEmpty(message = "La lista de IDs debe contener al menos un elemento.")
+    @Size(max = 1000, message = "No se pueden cambiar más de 1000 pedidos por solicitud.")
+    private List<UUID> ids;
+
+    @NotNull(message = "El estado destino es obligatorio.")
+    private OrderStatus status;
+
+}
@@ -0,0 +1,25 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBulkStatusResponse {
+
+    private OrderStatus status;
+    private List<UUID> transitionedIds;
+    // Estado actual incompatible con el destino, o modificado concurrentemente
+    private List<UUID> rejectedIds;
+    private List<UUID> notFoundIds;
+
+}
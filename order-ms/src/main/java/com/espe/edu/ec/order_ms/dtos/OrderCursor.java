@@ -0,0 +1,10 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Posición de paginación keyset sobre (created_at, id).
+ */
+public record OrderCursor(LocalDateTime createdAt, UUID id) {
+}
@@ -0,0 +1,14 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.UUID;
+
+/**
+ * Resultado de las consultas geográficas nativas: solo el ID del pedido y su
+ * distancia al punto consultado, ya ordenados por cercanía.
+ */
+public interface OrderDistanceProjection {
+
+    UUID getId();
+    Double getDistanceKm();
+
+}
@@ -0,0 +1,28 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEventResponse {
+
+    private Long id;
+    // Posición en el registro: es el cursor ('after') de la siguiente consulta
+    private Long sequence;
+    private UUID orderId;
+    private OrderEventType eventType;
+    private OrderStatus orderStatus;
+    private LocalDateTime createdAt;
+
+}
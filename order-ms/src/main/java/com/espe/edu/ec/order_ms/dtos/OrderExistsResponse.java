@@ -0,0 +1,20 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.Set;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderExistsResponse {
+
+    // Subconjunto de los IDs solicitados que existen; los ausentes no existen
+    private Set<UUID> existingIds;
+
+}
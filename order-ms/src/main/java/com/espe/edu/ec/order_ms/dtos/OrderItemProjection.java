@@ -0,0 +1,19 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Proyección de lectura de un item, construida directamente por JPQL
+ * sin hidratar la entidad OrderItem.
+ */
+public record OrderItemProjection(
+    UUID orderId,
+    UUID id,
+    String description,
+    Integer quantity,
+    BigDecimal weightKg,
+    BigDecimal declaredValue,
+    BigDecimal handlingFee
+) {
+}
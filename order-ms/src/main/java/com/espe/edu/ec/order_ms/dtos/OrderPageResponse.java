@@ -0,0 +1,20 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderPageResponse {
+
+    private List<OrderResponse> orders;
+    // Token opaco para solicitar la siguiente página; null si no hay más resultados
+    private String nextCursor;
+
+}
@@ -0,0 +1,33 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.List;
+
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderQuoteRequest {
+
+    @NotNull(message = "El tipo de vehículo es obligatorio.")
+    private VehicleType vehicleType;
+
+    // Opcional: si no se envía se aplica la tarifa por defecto del tipo de vehículo
+    private String zoneId;
+
+    // Sin @Valid: una ruta inválida se reporta en su línea sin rechazar las demás
+    @NotNull(message = "La lista de rutas es obligatoria.")
+    @NotEmpty(message = "La lista de rutas debe contener al menos un elemento.")
+    @Size(max = 10000, message = "No se pueden cotizar más de 10000 rutas por solicitud.")
+    private List<QuoteRoute> routes;
+
+}
@@ -0,0 +1,22 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderQuoteResponse {
+
+    // Posición de la ruta dentro de la solicitud
+    private int index;
+    private Double distanceKm;
+    private Double tripFee;
+    private Double serviceFee;
+    private Double totalAmount;
+    private String error;
+
+}
@@ -31,6 +31,9 @@ public class OrderRequest {
     @NotNull(message = "El tipo de vehículo es obligatorio.")
     private VehicleType vehicleType;
 
+    // Opcional: si no se envía se aplica la tarifa por defecto del tipo de vehículo
+    private String zoneId;
+
     @Valid
     private Address pickupAddress;
     @Valid
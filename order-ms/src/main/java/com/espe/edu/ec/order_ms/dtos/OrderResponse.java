@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
 import com.espe.edu.ec.order_ms.models.Address;
 
 import lombok.AllArgsConstructor;
@@ -23,6 +24,7 @@ public class OrderResponse{
     private UUID customerId;
     private UUID driverId;
     private String vehicleId;
+    private VehicleType vehicleType;
     private OrderStatus status;
     private Double distanceKm;
     private Double tripFee;
@@ -32,5 +34,6 @@ public class OrderResponse{
     private Address pickupAddress;
     private List<OrderItemResponse> orderItems;
     private LocalDateTime orderDate;
+    private Long version;
 
 }
\ No newline at end of file
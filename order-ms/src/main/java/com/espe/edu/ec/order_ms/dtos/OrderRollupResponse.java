@@ -0,0 +1,28 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.time.LocalDate;
+
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderRollupResponse {
+
+    private LocalDate bucketStart;
+    // Nulo para pedidos tarifados sin tipo de vehículo
+    private VehicleType vehicleType;
+    private long orders;
+    private Double revenue;
+    private long cancelledOrders;
+    private Double cancelledRevenue;
+    private Double netRevenue;
+    private long deliveredOrders;
+
+}
@@ -0,0 +1,18 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+/**
+ * Estado mínimo de un pedido para validar una transición sin hidratar la entidad
+ * (sin jsonb ni items). La versión permite aplicar el cambio como compare-and-set.
+ */
+public record OrderStateProjection(
+    UUID id,
+    UUID customerId,
+    OrderStatus status,
+    UUID driverId,
+    Long version
+) {
+}
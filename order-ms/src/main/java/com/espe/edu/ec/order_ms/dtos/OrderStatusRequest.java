@@ -0,0 +1,20 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusRequest {
+
+    @NotNull(message = "El estado destino es obligatorio.")
+    private OrderStatus status;
+
+}
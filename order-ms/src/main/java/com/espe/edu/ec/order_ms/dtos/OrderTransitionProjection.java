@@ -0,0 +1,14 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.util.UUID;
+
+/**
+ * Fila devuelta (RETURNING) por una transición en lote: el pedido que cambió y el
+ * conductor que tenía en ese momento, que es el que recibe el evento para Fleet.
+ */
+public interface OrderTransitionProjection {
+
+    UUID getId();
+    UUID getDriverId();
+
+}
@@ -0,0 +1,35 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado del PricingEngine en punto fijo: distancia en centésimas de km y
+ * montos en millonésimas. Los BigDecimal solo se crean al persistir o responder.
+ */
+public record PriceQuote(
+    long distanceCentiKm,
+    long tripFeeMicros,
+    long serviceFeeMicros,
+    long handlingFeeMicros,
+    long totalMicros
+) {
+
+    public static final int MONEY_SCALE = 6;
+    public static final int DISTANCE_SCALE = 2;
+
+    public BigDecimal toDistanceKm() {
+        return BigDecimal.valueOf(distanceCentiKm, DISTANCE_SCALE);
+    }
+
+    public BigDecimal toTripFee() {
+        return BigDecimal.valueOf(tripFeeMicros, MONEY_SCALE);
+    }
+
+    public BigDecimal toServiceFee() {
+        return BigDecimal.valueOf(serviceFeeMicros, MONEY_SCALE);
+    }
+
+    public BigDecimal toTotalAmount() {
+        return BigDecimal.valueOf(totalMicros, MONEY_SCALE);
+    }
+}
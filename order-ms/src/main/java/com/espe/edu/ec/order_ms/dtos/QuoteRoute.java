@@ -0,0 +1,20 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import com.espe.edu.ec.order_ms.models.Address;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuoteRoute {
+
+    // Solo se usan las coordenadas; el resto de la dirección es opcional
+    private Address pickupAddress;
+    private Address deliveryAddress;
+
+}
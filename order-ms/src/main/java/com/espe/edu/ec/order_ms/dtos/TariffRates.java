@@ -0,0 +1,19 @@
+package com.espe.edu.ec.order_ms.dtos;
+
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+
+/**
+ * Tarifa en punto fijo para el cálculo de precios sin BigDecimal.
+ * Los costos monetarios van en millonésimas (escala 6) y los costos por unidad
+ * en diezmilésimas (escala 4, la escala de las columnas de tariffs).
+ */
+public record TariffRates(
+    Long tariffId,
+    String zoneId,
+    VehicleType vehicleType,
+    long baseCostMicros,
+    long costPerKmE4,
+    long costPerKgE4,
+    int minDistanceKm
+) {
+}
@@ -1,13 +0,0 @@
-// package com.espe.edu.ec.order_ms.event_producers;
-
-// import org.springframework.cloud.openfeign.FeignClient;
-// import org.springframework.web.bind.annotation.PostMapping;
-// import org.springframework.web.bind.annotation.RequestBody;
-
-// @FeignClient(name = "billing-ms", url = "http://localhost:5173") // GATEWAY API
-// public interface BillingEventProducer {
-
-//     @PostMapping("/billing/cancel-trip")
-//     boolean cancelTrip(@RequestBody String driverId); 
-
-// }
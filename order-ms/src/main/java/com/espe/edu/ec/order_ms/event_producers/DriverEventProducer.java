@@ -1,15 +1,19 @@
-// package com.espe.edu.ec.order_ms.event_producers;
+package com.espe.edu.ec.order_ms.event_producers;
 
-// import java.util.UUID;
+import java.util.UUID;
 
-// import org.springframework.cloud.openfeign.FeignClient;
-// import org.springframework.web.bind.annotation.PostMapping;
-// import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 
-// @FeignClient(name = "driver-ms", url = "http://localhost:5173") // GATEWAY API
-// public interface DriverEventProducer {
+import com.espe.edu.ec.order_ms.config.FleetClientConfig;
+import com.espe.edu.ec.order_ms.dtos.DriverStatusRequest;
 
-//     @PostMapping("/drivers/cancel-trip")
-//     boolean updateStatus(@RequestBody UUID driverId); 
+@FeignClient(name = "fleet-service", url = "${FLEET_SERVICE_URL:http://fleet-service:8080}", configuration = FleetClientConfig.class)
+public interface DriverEventProducer {
 
-// }
+    @PatchMapping("/api/driver/{id}/status")
+    void updateStatus(@PathVariable UUID id, @RequestBody DriverStatusRequest request); 
+
+}
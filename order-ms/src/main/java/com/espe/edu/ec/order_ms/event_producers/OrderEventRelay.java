@@ -0,0 +1,160 @@
+package com.espe.edu.ec.order_ms.event_producers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.dtos.DriverStatusRequest;
+import com.espe.edu.ec.order_ms.model_enums.DeliveryStatus;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+import com.espe.edu.ec.order_ms.repositories.OrderEventRepository;
+import com.espe.edu.ec.order_ms.services.OrderEventService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Entrega en segundo plano los eventos pendientes del outbox (order_events) a Fleet.
+ *
+ * - Reclamo: cada lote se marca IN_FLIGHT con una concesión (lease) en una transacción
+ *   propia antes de enviarlo, así dos instancias no entregan el mismo evento ni eventos
+ *   del mismo pedido a la vez. Si la instancia cae, el lote se retoma al vencer la concesión.
+ * - Orden: los eventos de un mismo pedido se envían en orden de publishedSeq (orden de
+ *   confirmación, ver OrderEventPublishJob) y uno a la vez; si uno falla, los siguientes
+ *   del mismo pedido se liberan y esperan a su reintento.
+ * - Reintentos: backoff exponencial hasta max-attempts; luego el evento queda FAILED.
+ * - Contrapresión: se lee un lote acotado, se reparte por pedido en un pool fijo y no
+ *   se lee el siguiente lote hasta terminar el actual.
+ *
+ * El cambio de estado de un conductor es idempotente, por lo que una entrega
+ * duplicada (p. ej. tras una caída antes de marcar PUBLISHED) no tiene efecto.
+ */
+@Component
+@Slf4j
+public class OrderEventRelay {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventService orderEventService;
+    private final DriverEventProducer driverEventProducer;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+
+    public OrderEventRelay(OrderEventRepository orderEventRepository,
+                           OrderEventService orderEventService,
+                           DriverEventProducer driverEventProducer,
+                           @Value("${orders.outbox.relay.batch-size:200}") int batchSize,
+                           @Value("${orders.outbox.relay.parallelism:4}") int parallelism,
+                           @Value("${orders.outbox.relay.max-attempts:10}") int maxAttempts,
+                           @Value("${orders.outbox.relay.lease:2m}") Duration lease,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderEventRepository = orderEventRepository;
+        this.orderEventService = orderEventService;
+        this.driverEventProducer = driverEventProducer;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        // El pool sigue siendo fijo para acotar las entregas en vuelo (contrapresión)
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("outbox-relay-", 0).factory()
+            : Thread.ofPlatform().name("outbox-relay-", 0).factory();
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.outbox.relay.poll-interval:1s}")
+    public void relay() {
+
+        List<OrderEvent> claimed = orderEventService.claimForDelivery(batchSize, lease);
+        if (claimed.isEmpty()) return;
+
+        // RETURNING no garantiza orden: se reordena por posición antes de agrupar
+        Map<UUID, List<OrderEvent>> byOrder = new LinkedHashMap<>();
+        claimed.stream()
+            .sorted(Comparator.comparing(OrderEvent::getPublishedSeq))
+            .forEach(event -> byOrder.computeIfAbsent(event.getOrderId(), id -> new ArrayList<>()).add(event));
+
+        List<CompletableFuture<List<OrderEvent>>> deliveries = byOrder.values().stream()
+            .map(events -> CompletableFuture.supplyAsync(() -> deliverInOrder(events), executor))
+            .toList();
+
+        List<OrderEvent> processed = deliveries.stream()
+            .flatMap(delivery -> delivery.join().stream())
+            .toList();
+
+        orderEventRepository.saveAll(processed);
+    }
+
+    /**
+     * Entrega los eventos reclamados de un pedido en orden. Todos vuelven con su nuevo estado:
+     * PUBLISHED, FAILED, PENDING con reintento o, detrás de un reintento, PENDING liberados.
+     */
+    private List<OrderEvent> deliverInOrder(List<OrderEvent> events) {
+
+        List<OrderEvent> processed = new ArrayList<>(events.size());
+        LocalDateTime now = LocalDateTime.now();
+        boolean retrying = false;
+
+        for (OrderEvent event : events) {
+            processed.add(event);
+            if (retrying) {
+                event.setDeliveryStatus(DeliveryStatus.PENDING);
+                event.setNextAttemptAt(null);
+                continue;
+            }
+
+            try {
+                publish(event);
+                event.setDeliveryStatus(DeliveryStatus.PUBLISHED);
+                event.setNextAttemptAt(null);
+            } catch (RuntimeException e) {
+                int attempts = event.getDeliveryAttempts() + 1;
+                event.setDeliveryAttempts(attempts);
+
+                if (attempts >= maxAttempts) {
+                    log.error("Evento {} del pedido {} descartado tras {} intentos: {}", event.getId(), event.getOrderId(), attempts, e.getMessage());
+                    event.setDeliveryStatus(DeliveryStatus.FAILED);
+                    event.setNextAttemptAt(null);
+                    continue;
+                }
+
+                log.warn("Fallo al entregar evento {} del pedido {} (intento {}): {}", event.getId(), event.getOrderId(), attempts, e.getMessage());
+                event.setDeliveryStatus(DeliveryStatus.PENDING);
+                event.setNextAttemptAt(now.plus(backoff(attempts)));
+                retrying = true;
+            }
+        }
+        return processed;
+    }
+
+    private void publish(OrderEvent event) {
+        String driverStatus = event.getEventType() == OrderEventType.DRIVER_ASSIGNED ? "BUSY" : "AVAILABLE";
+        driverEventProducer.updateStatus(event.getDriverId(), new DriverStatusRequest(driverStatus));
+    }
+
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts, 16));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package com.espe.edu.ec.order_ms.exceptions;
+
+/**
+ * La Idempotency-Key ya se usó con otro cuerpo de solicitud, o la solicitud original
+ * con esa clave sigue en curso. Se responde como 409 Conflict.
+ */
+public class IdempotencyConflictException extends IllegalStateException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.espe.edu.ec.order_ms.exceptions;
+
+/**
+ * El pedido existe pero su estado actual no admite la transición pedida, normalmente
+ * porque otra solicitud lo modificó antes. Se responde como 409 Conflict.
+ */
+public class OrderConflictException extends IllegalStateException {
+
+    public OrderConflictException(String message) {
+        super(message);
+    }
+
+}
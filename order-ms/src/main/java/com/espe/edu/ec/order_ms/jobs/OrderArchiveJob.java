@@ -0,0 +1,41 @@
+package com.espe.edu.ec.order_ms.jobs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.services.OrderArchiveService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Archiva en segundo plano los pedidos finales vencidos. Cada lote se bloquea con
+ * SKIP LOCKED, así varias instancias pueden correr el job sin mover dos veces el
+ * mismo pedido ni bloquear las transiciones en curso.
+ */
+@Component
+@Slf4j
+public class OrderArchiveJob {
+
+    private final OrderArchiveService orderArchiveService;
+    private final int batchSize;
+
+    public OrderArchiveJob(OrderArchiveService orderArchiveService,
+                           @Value("${orders.archive.batch-size:1000}") int batchSize) {
+        this.orderArchiveService = orderArchiveService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.poll-interval:1h}", initialDelayString = "${orders.archive.initial-delay:1m}")
+    public void archive() {
+        try {
+            int moved;
+            do {
+                // Un lote por transacción: los bloqueos y el WAL de cada lote quedan acotados
+                moved = orderArchiveService.archiveBatch(batchSize);
+            } while (moved == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron archivar pedidos: {}", e.getMessage());
+        }
+    }
+}
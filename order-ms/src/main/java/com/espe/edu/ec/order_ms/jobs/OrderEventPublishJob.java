@@ -0,0 +1,39 @@
+package com.espe.edu.ec.order_ms.jobs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.services.OrderEventService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publica los eventos confirmados de order_events para GET /orders/events asignándoles
+ * published_seq. El intervalo acota el retraso con que Billing ve un evento.
+ */
+@Component
+@Slf4j
+public class OrderEventPublishJob {
+
+    private final OrderEventService orderEventService;
+    private final int batchSize;
+
+    public OrderEventPublishJob(OrderEventService orderEventService,
+                                @Value("${orders.events.publish.batch-size:1000}") int batchSize) {
+        this.orderEventService = orderEventService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.events.publish.poll-interval:500ms}")
+    public void publish() {
+        try {
+            int published;
+            do {
+                published = orderEventService.publishPending(batchSize);
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron publicar eventos de pedidos: {}", e.getMessage());
+        }
+    }
+}
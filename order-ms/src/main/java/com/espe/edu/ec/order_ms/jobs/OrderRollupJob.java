@@ -0,0 +1,106 @@
+package com.espe.edu.ec.order_ms.jobs;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.services.OrderAnalyticsService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene order_daily_rollups: consolida periódicamente los deltas que escriben las
+ * transacciones de pedidos y, bajo pedido, recalcula un rango de fechas desde cero
+ * en tramos de chunk-days días procesados en paralelo (cada tramo en su transacción).
+ */
+@Component
+@Slf4j
+public class OrderRollupJob {
+
+    private static final int MAX_CHUNK_ATTEMPTS = 5;
+
+    private final OrderAnalyticsService orderAnalyticsService;
+    private final ExecutorService executor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final int foldBatchSize;
+    private final int chunkDays;
+
+    public OrderRollupJob(OrderAnalyticsService orderAnalyticsService,
+                          @Value("${orders.rollups.fold-batch-size:5000}") int foldBatchSize,
+                          @Value("${orders.rollups.rebuild.chunk-days:7}") int chunkDays,
+                          @Value("${orders.rollups.rebuild.parallelism:4}") int parallelism,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.orderAnalyticsService = orderAnalyticsService;
+        this.foldBatchSize = foldBatchSize;
+        this.chunkDays = chunkDays;
+        // Pool fijo: acota las conexiones que ocupa una reconstrucción
+        ThreadFactory threadFactory = virtualThreads
+            ? Thread.ofVirtual().name("rollup-rebuild-", 0).factory()
+            : Thread.ofPlatform().name("rollup-rebuild-", 0).factory();
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.rollups.fold-interval:5s}")
+    public void fold() {
+        try {
+            int folded;
+            do {
+                folded = orderAnalyticsService.foldDeltas(foldBatchSize);
+            } while (folded == foldBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron consolidar los deltas de pedidos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia la reconstrucción de [from, to) en segundo plano. Devuelve false si ya hay
+     * una en curso en esta instancia.
+     */
+    public boolean startRebuild(LocalDate from, LocalDate to) {
+
+        if (!rebuilding.compareAndSet(false, true)) return false;
+
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (LocalDate start = from; start.isBefore(to); start = start.plusDays(chunkDays)) {
+            LocalDate chunkFrom = start;
+            LocalDate chunkTo = start.plusDays(chunkDays).isBefore(to) ? start.plusDays(chunkDays) : to;
+            chunks.add(CompletableFuture.runAsync(() -> rebuildChunk(chunkFrom, chunkTo), executor));
+        }
+
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).whenComplete((result, error) -> {
+            rebuilding.set(false);
+            if (error != null) log.error("Reconstrucción de rollups de pedidos [{}, {}) incompleta: {}", from, to, error.getMessage());
+            else log.info("Rollups de pedidos reconstruidos para [{}, {}) en {} tramos", from, to, chunks.size());
+        });
+        return true;
+    }
+
+    private void rebuildChunk(LocalDate from, LocalDate to) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                orderAnalyticsService.rebuildChunk(from, to);
+                return;
+            } catch (ConcurrencyFailureException e) {
+                // Conflicto de serialización con una consolidación concurrente del mismo rango
+                if (attempt == MAX_CHUNK_ATTEMPTS) throw e;
+                log.debug("Reintentando tramo [{}, {}) de rollups (intento {}): {}", from, to, attempt, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,42 @@
+package com.espe.edu.ec.order_ms.mappers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.dtos.OrderCursor;
+import com.espe.edu.ec.order_ms.models.Order;
+
+public final class OrderCursorMapper {
+
+    private static final String SEPARATOR = "|";
+
+    private OrderCursorMapper(){
+        throw new UnsupportedOperationException("Clase utilitaria");
+    };
+
+    public static String encode(Order order){
+
+        if(order == null) throw new IllegalArgumentException("Pedido inválido para generar cursor.");
+
+        String raw = order.getCreatedAt() + SEPARATOR + order.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor){
+
+        if(cursor == null || cursor.isBlank()) return null;
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            return new OrderCursor(
+                LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido.");
+        }
+    }
+
+}
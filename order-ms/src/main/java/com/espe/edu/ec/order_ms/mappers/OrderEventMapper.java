@@ -0,0 +1,68 @@
+package com.espe.edu.ec.order_ms.mappers;
+
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.dtos.OrderEventResponse;
+import com.espe.edu.ec.order_ms.model_enums.DeliveryStatus;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+
+public final class OrderEventMapper {
+
+    private OrderEventMapper(){
+        throw new UnsupportedOperationException("Clase utilitaria");
+    };
+
+    public static OrderEvent orderToEvent(Order order, OrderEventType eventType){
+
+        if(order == null) throw new IllegalArgumentException("Pedido inválido para registrar evento.");
+
+        return toEvent(order.getId(), order.getStatus(), order.getDriverId(), eventType);
+    }
+
+    // Variante para transiciones por UPDATE condicional, donde la entidad no se carga
+    public static OrderEvent toEvent(UUID orderId, OrderStatus orderStatus, UUID driverId, OrderEventType eventType){
+
+        if(orderId == null) throw new IllegalArgumentException("Pedido inválido para registrar evento.");
+
+        return OrderEvent.builder()
+            .orderId(orderId)
+            .eventType(eventType)
+            .orderStatus(orderStatus)
+            .driverId(driverId)
+            .deliveryStatus(requiresFleetDelivery(eventType, orderStatus, driverId) ? DeliveryStatus.PENDING : DeliveryStatus.NOT_REQUIRED)
+            .build();
+    }
+
+    // Las cancelaciones (de cualquier origen) conservan ORDER_CANCELLED, que es lo que consume Billing
+    public static OrderEventType eventTypeFor(OrderStatus newStatus){
+        return newStatus == OrderStatus.CANCELLED || newStatus == OrderStatus.CANCELLED_BY_DELIVERY
+            ? OrderEventType.ORDER_CANCELLED
+            : OrderEventType.STATUS_CHANGED;
+    }
+
+    // Solo las asignaciones, las liberaciones, las cancelaciones y las entregas con conductor cambian el estado del conductor en Fleet
+    private static boolean requiresFleetDelivery(OrderEventType eventType, OrderStatus orderStatus, UUID driverId){
+        return driverId != null
+            && (eventType == OrderEventType.DRIVER_ASSIGNED
+                || eventType == OrderEventType.DRIVER_RELEASED
+                || eventType == OrderEventType.ORDER_CANCELLED
+                || orderStatus == OrderStatus.DELIVERED);
+    }
+
+    public static OrderEventResponse entityToResponse(OrderEvent orderEvent){
+        if(orderEvent == null) return null;
+
+        return OrderEventResponse.builder()
+            .id(orderEvent.getId())
+            .sequence(orderEvent.getPublishedSeq())
+            .orderId(orderEvent.getOrderId())
+            .eventType(orderEvent.getEventType())
+            .orderStatus(orderEvent.getOrderStatus())
+            .createdAt(orderEvent.getCreatedAt())
+            .build();
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.espe.edu.ec.order_ms.mappers;
 
+import com.espe.edu.ec.order_ms.dtos.OrderItemProjection;
 import com.espe.edu.ec.order_ms.dtos.OrderItemRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderItemResponse;
 import com.espe.edu.ec.order_ms.models.OrderItem;
@@ -39,5 +40,21 @@ public final class OrderItemMapper {
             .build();
     }
 
-}
+    public static OrderItemResponse projectionToResponse(OrderItemProjection projection){
+
+        if(projection == null) throw new IllegalArgumentException("Datos de item de pedido inválidos.");
 
+        return OrderItemResponse.builder()
+            .id(projection.id())
+            .description(projection.description())
+            .quantity(projection.quantity())
+            .weightKg(projection.weightKg() != null ? 
+                projection.weightKg().doubleValue() : null)
+            .declaredValue(projection.declaredValue() != null ? 
+                projection.declaredValue().doubleValue() : null)
+            .handlingFee(projection.handlingFee() != null ? 
+                projection.handlingFee().doubleValue() : null)
+            .build();
+    }
+
+}
@@ -2,6 +2,7 @@ package com.espe.edu.ec.order_ms.mappers;
 
 import java.util.List;
 
+import com.espe.edu.ec.order_ms.dtos.OrderItemResponse;
 import com.espe.edu.ec.order_ms.dtos.OrderRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderResponse;
 import com.espe.edu.ec.order_ms.models.Order;
@@ -20,6 +21,7 @@ public final class OrderMapper {
 
         Order newOrder = Order.builder()
                 .customerId(orderRequest.getCustomerId())
+                .vehicleType(orderRequest.getVehicleType())
                 .pickupAddress(orderRequest.getPickupAddress())
                 .deliveryAddress(orderRequest.getDeliveryAddress())
                 .build();
@@ -38,12 +40,27 @@ public final class OrderMapper {
 
     public static OrderResponse entityToOrderResponse(Order order){
         if(order == null) return null;
+
+        return entityToOrderResponse(order, order.getItems() != null ?
+            order.getItems().stream()
+                .map(OrderItemMapper::orderItemResponseToEntity)
+                .toList() : null);
+    }
+
+    /**
+     * Variante para rutas de listado: los items ya vienen resueltos (p. ej. desde
+     * OrderItemRepository#findProjectionsByOrderIds), por lo que no se toca la
+     * colección lazy Order.items.
+     */
+    public static OrderResponse entityToOrderResponse(Order order, List<OrderItemResponse> orderItems){
+        if(order == null) return null;
         
         return OrderResponse.builder()
             .id(order.getId())
             .customerId(order.getCustomerId())
             .driverId(order.getDriverId())
             .vehicleId(order.getVehicleId())
+            .vehicleType(order.getVehicleType())
             .status(order.getStatus())
             .distanceKm(order.getDistanceKm() != null ? 
                 order.getDistanceKm().doubleValue() : null)
@@ -55,11 +72,9 @@ public final class OrderMapper {
                 order.getTotalAmount().doubleValue() : null)
             .deliveryAddress(order.getDeliveryAddress())
             .pickupAddress(order.getPickupAddress())
-            .orderItems(order.getItems() != null ?
-                order.getItems().stream()
-                    .map(OrderItemMapper::orderItemResponseToEntity)
-                    .toList() : null)
+            .orderItems(orderItems)
             .orderDate(order.getCreatedAt())
+            .version(order.getVersion())
             .build();
     }
 
@@ -0,0 +1,35 @@
+package com.espe.edu.ec.order_ms.mappers;
+
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteResponse;
+import com.espe.edu.ec.order_ms.dtos.PriceQuote;
+
+public final class QuoteMapper {
+
+    // Dividir el entero escalado da el mismo double que BigDecimal.doubleValue()
+    private static final double MONEY_DIVISOR = 1_000_000d;
+    private static final double DISTANCE_DIVISOR = 100d;
+
+    private QuoteMapper(){
+        throw new UnsupportedOperationException("Clase utilitaria");
+    };
+
+    public static OrderQuoteResponse quoteToResponse(int index, PriceQuote quote){
+
+        return OrderQuoteResponse.builder()
+            .index(index)
+            .distanceKm(quote.distanceCentiKm() / DISTANCE_DIVISOR)
+            .tripFee(quote.tripFeeMicros() / MONEY_DIVISOR)
+            .serviceFee(quote.serviceFeeMicros() / MONEY_DIVISOR)
+            .totalAmount(quote.totalMicros() / MONEY_DIVISOR)
+            .build();
+    }
+
+    public static OrderQuoteResponse errorToResponse(int index, String error){
+
+        return OrderQuoteResponse.builder()
+            .index(index)
+            .error(error)
+            .build();
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.espe.edu.ec.order_ms.mappers;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.espe.edu.ec.order_ms.dtos.PriceQuote;
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.models.Tariff;
+
+public final class TariffMapper {
+
+    private static final int RATE_SCALE = 4;
+
+    private TariffMapper(){
+        throw new UnsupportedOperationException("Clase utilitaria");
+    };
+
+    public static TariffRates entityToRates(Tariff tariff){
+
+        if(tariff == null) throw new IllegalArgumentException("La tarifa no puede ser nula.");
+
+        return new TariffRates(
+            tariff.getId(),
+            tariff.getZoneId(),
+            tariff.getVehicleType(),
+            toUnscaled(tariff.getBaseCost(), PriceQuote.MONEY_SCALE),
+            toUnscaled(tariff.getCostPerKm(), RATE_SCALE),
+            tariff.getCostPerKg() != null ? toUnscaled(tariff.getCostPerKg(), RATE_SCALE) : 0L,
+            tariff.getMinDistanceKm());
+    }
+
+    // Las columnas de tariffs tienen escala 4, así que la conversión es siempre exacta
+    private static long toUnscaled(BigDecimal value, int scale){
+        try {
+            return value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalStateException("Valor de tarifa fuera de escala: " + value, e);
+        }
+    }
+
+}
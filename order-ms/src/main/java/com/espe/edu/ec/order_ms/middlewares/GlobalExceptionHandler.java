@@ -1,10 +1,16 @@
 package com.espe.edu.ec.order_ms.middlewares;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import com.espe.edu.ec.order_ms.exceptions.IdempotencyConflictException;
+import com.espe.edu.ec.order_ms.exceptions.OrderConflictException;
+
+import jakarta.persistence.OptimisticLockException;
+
 @ControllerAdvice
 public final class GlobalExceptionHandler {
 
@@ -18,6 +24,15 @@ public final class GlobalExceptionHandler {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler({OrderConflictException.class, IdempotencyConflictException.class})
+    public ResponseEntity<String> handleOrderConflicts(IllegalStateException ex){
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    // Otra transacción modificó el pedido (versión distinta) entre la lectura y la escritura
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<String> handleConcurrentModification(RuntimeException ex){
+        return new ResponseEntity<>("El pedido fue modificado por otra operación. Vuelva a consultarlo e intente de nuevo.", HttpStatus.CONFLICT);
+    }
 
 }
-
@@ -0,0 +1,34 @@
+package com.espe.edu.ec.order_ms.middlewares;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual. Lo instancia
+ * Hibernate (hibernate.session_factory.statement_inspector), por eso el contador es
+ * estático; QueryMetricsFilter lo reinicia y lo lee por petición. No modifica el SQL.
+ *
+ * billing-ms tiene una copia igual, com.espe.edu.ec.billing_ms.middlewares.QueryCountInspector. Cada servicio
+ * se compila solo desde su carpeta, sin módulo común: un cambio va en las dos.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    public static void clear() {
+        COUNT.remove();
+    }
+}
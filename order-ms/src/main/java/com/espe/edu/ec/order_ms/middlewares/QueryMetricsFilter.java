@@ -0,0 +1,59 @@
+package com.espe.edu.ec.order_ms.middlewares;
+
+import java.io.IOException;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Registra cuántas sentencias SQL ejecutó cada petición (http.server.requests.queries),
+ * con las mismas etiquetas method/uri que http.server.requests. Un endpoint que de
+ * pronto hace N+1 consultas se ve aquí sin activar el log de SQL.
+ *
+ * Solo cuenta lo ejecutado en el hilo de la petición; las respuestas en streaming
+ * (StreamingResponseBody) consultan la base desde otro hilo y no se incluyen.
+ *
+ * billing-ms tiene una copia igual, com.espe.edu.ec.billing_ms.middlewares.QueryMetricsFilter. Cada servicio
+ * se compila solo desde su carpeta, sin módulo común: un cambio va en las dos.
+ */
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        QueryCountInspector.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int queries = QueryCountInspector.count();
+            QueryCountInspector.clear();
+            // Plantilla de la ruta (/orders/{id}), no la URI real: la cardinalidad queda acotada
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("http.server.requests.queries")
+                .description("Sentencias SQL ejecutadas por petición")
+                .baseUnit("queries")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : UNKNOWN_URI)
+                .register(meterRegistry)
+                .record(queries);
+        }
+    }
+}
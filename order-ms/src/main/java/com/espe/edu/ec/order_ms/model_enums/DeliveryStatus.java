@@ -0,0 +1,9 @@
+package com.espe.edu.ec.order_ms.model_enums;
+
+public enum DeliveryStatus {
+    PENDING,
+    IN_FLIGHT,
+    PUBLISHED,
+    NOT_REQUIRED,
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.espe.edu.ec.order_ms.model_enums;
+
+public enum DispatchMode {
+    GREEDY,
+    OPTIMAL
+}
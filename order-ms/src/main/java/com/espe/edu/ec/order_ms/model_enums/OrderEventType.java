@@ -0,0 +1,10 @@
+package com.espe.edu.ec.order_ms.model_enums;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    ORDER_UPDATED,
+    ORDER_CANCELLED,
+    DRIVER_ASSIGNED,
+    DRIVER_RELEASED,
+    STATUS_CHANGED
+}
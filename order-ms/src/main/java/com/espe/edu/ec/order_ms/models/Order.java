@@ -2,6 +2,8 @@ package com.espe.edu.ec.order_ms.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 import org.springframework.data.annotation.CreatedDate;
@@ -9,6 +11,7 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,7 +20,16 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_orders_customer_created_at_id", columnList = "customer_id, created_at, id"),
+    @Index(name = "idx_orders_pickup_geo", columnList = "pickup_lat, pickup_lon"),
+    @Index(name = "idx_orders_delivery_geo", columnList = "delivery_lat, delivery_lon"),
+    @Index(name = "idx_orders_status_pickup_geo", columnList = "status, pickup_lat, pickup_lon")
+}, uniqueConstraints = {
+    // Respaldo de IdempotencyStore: un mismo cliente no puede crear dos pedidos con la misma clave
+    @UniqueConstraint(name = Order.IDEMPOTENCY_KEY_CONSTRAINT, columnNames = {"customer_id", "idempotency_key"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,7 +37,9 @@ import java.util.UUID;
 @Builder
 @EntityListeners(AuditingEntityListener.class)
 public class Order {
-    
+
+    public static final String IDEMPOTENCY_KEY_CONSTRAINT = "uk_orders_customer_idempotency_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -36,9 +50,22 @@ public class Order {
     @Column(name = "driver_id")
     private UUID driverId;
 
+    // Idempotency-Key con la que se creó el pedido; nula si el cliente no la envió
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Huella (SHA-256) del cuerpo de la solicitud que usó idempotencyKey; ver IdempotencyStore.fingerprint
+    @Column(name = "idempotency_fingerprint", length = 64)
+    private String idempotencyFingerprint;
+
     @Column(name = "vehicle_id")
     private String vehicleId;
 
+    // Tipo de vehículo con el que se tarifó el pedido; nulo en pedidos previos a este campo
+    @Enumerated(EnumType.STRING)
+    @Column(name = "vehicle_type")
+    private VehicleType vehicleType;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status;
@@ -63,10 +90,39 @@ public class Order {
     @Column(name = "pickup_address", columnDefinition = "jsonb", nullable = false)
     private Address pickupAddress;
 
+    // Coordenadas extraídas del jsonb por PostgreSQL (columnas generadas) para poder
+    // indexarlas; solo se usan en consultas geográficas y nunca se escriben desde Java.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pickup_lat", insertable = false, updatable = false,
+            columnDefinition = "double precision GENERATED ALWAYS AS ((pickup_address #>> '{coordinates,latitude}')::double precision) STORED")
+    private Double pickupLatitude;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pickup_lon", insertable = false, updatable = false,
+            columnDefinition = "double precision GENERATED ALWAYS AS ((pickup_address #>> '{coordinates,longitude}')::double precision) STORED")
+    private Double pickupLongitude;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "delivery_lat", insertable = false, updatable = false,
+            columnDefinition = "double precision GENERATED ALWAYS AS ((delivery_address #>> '{coordinates,latitude}')::double precision) STORED")
+    private Double deliveryLatitude;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "delivery_lon", insertable = false, updatable = false,
+            columnDefinition = "double precision GENERATED ALWAYS AS ((delivery_address #>> '{coordinates,longitude}')::double precision) STORED")
+    private Double deliveryLongitude;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
+    // Control optimista: las transiciones por UPDATE condicional también lo incrementan
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false, nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,79 @@
+package com.espe.edu.ec.order_ms.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import com.espe.edu.ec.order_ms.model_enums.DeliveryStatus;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Registro append-only de cambios de pedidos (outbox transaccional). Se escribe en la
+ * misma transacción que el cambio del pedido; Billing lo lee en orden de publishedSeq y
+ * OrderEventRelay entrega a Fleet, en ese mismo orden, los eventos con deliveryStatus PENDING.
+ */
+@Entity
+@Table(name = "order_events", indexes = {
+    @Index(name = "idx_order_events_order_id", columnList = "order_id"),
+    @Index(name = "idx_order_events_delivery_seq", columnList = "delivery_status, published_seq"),
+    @Index(name = "idx_order_events_published_seq", columnList = "published_seq", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class OrderEvent {
+
+    // Secuencia (no IDENTITY) para no deshabilitar los batch inserts de Hibernate
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private OrderEventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_status", nullable = false)
+    private OrderStatus orderStatus;
+
+    @Column(name = "driver_id")
+    private UUID driverId;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'NOT_REQUIRED'")
+    @Column(name = "delivery_status", nullable = false, length = 20)
+    private DeliveryStatus deliveryStatus;
+
+    @ColumnDefault("0")
+    @Column(name = "delivery_attempts", nullable = false)
+    private int deliveryAttempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    /*
+     * Posición en el registro que leen los consumidores. El ID se reserva al insertar y no
+     * sigue el orden de confirmación; OrderEventPublishJob asigna esta posición después del
+     * commit, así un consumidor nunca deja atrás un evento que todavía no veía.
+     */
+    @Column(name = "published_seq")
+    private Long publishedSeq;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+}
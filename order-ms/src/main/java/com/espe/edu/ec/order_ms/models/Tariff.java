@@ -13,6 +13,7 @@ import com.espe.edu.ec.order_ms.model_enums.VehicleType;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(TariffChangeListener.class)
 public class Tariff {
     
     @Id
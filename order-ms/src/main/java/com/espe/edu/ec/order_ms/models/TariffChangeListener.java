@@ -0,0 +1,44 @@
+package com.espe.edu.ec.order_ms.models;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.espe.edu.ec.order_ms.services.TariffCache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Invalida la caché de tarifas cuando una tarifa se escribe a través de JPA.
+ * Las escrituras externas (SQL directo) se reflejan al vencer el TTL.
+ */
+public class TariffChangeListener {
+
+    // Se resuelve de forma diferida: el listener se crea junto con el EntityManagerFactory
+    private final ObjectProvider<TariffCache> tariffCache;
+
+    public TariffChangeListener(ObjectProvider<TariffCache> tariffCache) {
+        this.tariffCache = tariffCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onTariffChange(Tariff tariff) {
+
+        // Los callbacks corren al hacer flush, antes del commit: invalidar ahí dejaría que
+        // otro hilo recargue la versión anterior y la deje en caché hasta que venza el TTL
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tariffCache.ifAvailable(TariffCache::invalidate);
+                }
+            });
+        } else {
+            tariffCache.ifAvailable(TariffCache::invalidate);
+        }
+    }
+}
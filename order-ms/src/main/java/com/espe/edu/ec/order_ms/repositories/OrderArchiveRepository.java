@@ -0,0 +1,32 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+/**
+ * Acceso a orders_archive (tabla particionada creada por Flyway, fuera del modelo JPA).
+ * Toda consulta por cliente lleva un rango de created_at para que PostgreSQL descarte
+ * las particiones que no lo cubren.
+ */
+public interface OrderArchiveRepository {
+
+    // created_at del pedido archivable más antiguo, para crear las particiones que falten
+    Optional<LocalDateTime> findOldestArchivable(Collection<OrderStatus> statuses, LocalDateTime cutoff);
+
+    void createArchivePartitions(LocalDateTime from, LocalDateTime to);
+
+    // Mueve un lote (orders + order_items -> orders_archive) y devuelve el cliente de cada pedido movido
+    List<UUID> archiveBatch(Collection<OrderStatus> statuses, LocalDateTime cutoff, int limit);
+
+    Optional<OrderResponse> findArchivedById(UUID id);
+
+    List<UUID> findArchivedIds(Collection<UUID> ids);
+
+    List<OrderResponse> findArchivedByCustomer(UUID customerId, LocalDateTime from, LocalDateTime to, int limit);
+}
@@ -0,0 +1,129 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import tools.jackson.databind.ObjectMapper;
+
+public class OrderArchiveRepositoryImpl implements OrderArchiveRepository {
+
+    /*
+     * Un solo statement: bloquea el lote con SKIP LOCKED, borra items y pedidos e inserta el
+     * documento en el archivo. La FK order_items -> orders se verifica al final del statement,
+     * cuando ambos DELETE ya se aplicaron. El documento replica las propiedades de OrderResponse.
+     */
+    private static final String ARCHIVE_BATCH = """
+        WITH candidates AS (
+            SELECT o.id FROM orders o
+            WHERE o.status IN (:statuses) AND o.created_at < :cutoff
+            ORDER BY o.created_at, o.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        ), moved_items AS (
+            DELETE FROM order_items i USING candidates c WHERE i.order_id = c.id
+            RETURNING i.order_id, i.id, i.description, i.quantity, i.weight_kg, i.declared_value, i.handling_fee
+        ), moved AS (
+            DELETE FROM orders o USING candidates c WHERE o.id = c.id
+            RETURNING o.*
+        )
+        INSERT INTO orders_archive (id, customer_id, status, vehicle_type, total_amount, created_at, document)
+        SELECT m.id, m.customer_id, m.status, m.vehicle_type, m.total_amount, m.created_at,
+               jsonb_build_object(
+                   'id', m.id, 'customerId', m.customer_id, 'driverId', m.driver_id, 'vehicleId', m.vehicle_id,
+                   'vehicleType', m.vehicle_type, 'status', m.status, 'distanceKm', m.distance_km,
+                   'tripFee', m.trip_fee, 'serviceFee', m.service_fee, 'totalAmount', m.total_amount,
+                   'deliveryAddress', m.delivery_address, 'pickupAddress', m.pickup_address,
+                   'orderItems', COALESCE((
+                       SELECT jsonb_agg(jsonb_build_object(
+                           'id', i.id, 'description', i.description, 'quantity', i.quantity,
+                           'weightKg', i.weight_kg, 'declaredValue', i.declared_value, 'handlingFee', i.handling_fee))
+                       FROM moved_items i WHERE i.order_id = m.id), '[]'::jsonb),
+                   'orderDate', m.created_at, 'version', m.version)
+        FROM moved m
+        RETURNING customer_id
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    public OrderArchiveRepositoryImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Optional<LocalDateTime> findOldestArchivable(Collection<OrderStatus> statuses, LocalDateTime cutoff) {
+        List<?> result = entityManager.createNativeQuery(
+                "SELECT min(o.created_at) FROM orders o WHERE o.status IN (:statuses) AND o.created_at < :cutoff", LocalDateTime.class)
+            .setParameter("statuses", names(statuses))
+            .setParameter("cutoff", cutoff)
+            .getResultList();
+        return result.isEmpty() ? Optional.empty() : Optional.ofNullable((LocalDateTime) result.get(0));
+    }
+
+    @Override
+    public void createArchivePartitions(LocalDateTime from, LocalDateTime to) {
+        entityManager.createNativeQuery("SELECT 1 FROM create_orders_archive_partitions(:from, :to)", Integer.class)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .getSingleResult();
+    }
+
+    @Override
+    public List<UUID> archiveBatch(Collection<OrderStatus> statuses, LocalDateTime cutoff, int limit) {
+        return entityManager.createNativeQuery(ARCHIVE_BATCH, UUID.class)
+            .setParameter("statuses", names(statuses))
+            .setParameter("cutoff", cutoff)
+            .setParameter("limit", limit)
+            .getResultList();
+    }
+
+    @Override
+    public Optional<OrderResponse> findArchivedById(UUID id) {
+        List<String> documents = entityManager.createNativeQuery(
+                "SELECT CAST(a.document AS text) FROM orders_archive a WHERE a.id = :id", String.class)
+            .setParameter("id", id)
+            .getResultList();
+        return documents.stream().findFirst().map(this::toResponse);
+    }
+
+    @Override
+    public List<UUID> findArchivedIds(Collection<UUID> ids) {
+        return entityManager.createNativeQuery("SELECT a.id FROM orders_archive a WHERE a.id IN (:ids)", UUID.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    }
+
+    @Override
+    public List<OrderResponse> findArchivedByCustomer(UUID customerId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> documents = entityManager.createNativeQuery("""
+                SELECT CAST(a.document AS text) FROM orders_archive a
+                WHERE a.customer_id = :customerId AND a.created_at >= :from AND a.created_at < :to
+                ORDER BY a.created_at DESC, a.id DESC
+                LIMIT :limit
+                """, String.class)
+            .setParameter("customerId", customerId)
+            .setParameter("from", from)
+            .setParameter("to", to)
+            .setParameter("limit", limit)
+            .getResultList();
+        return documents.stream().map(this::toResponse).toList();
+    }
+
+    private OrderResponse toResponse(String document) {
+        return objectMapper.readValue(document, OrderResponse.class);
+    }
+
+    private static List<String> names(Collection<OrderStatus> statuses) {
+        return statuses.stream().map(OrderStatus::name).toList();
+    }
+}
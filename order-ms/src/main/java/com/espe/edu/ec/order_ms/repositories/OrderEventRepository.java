@@ -0,0 +1,66 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long>{
+
+    // Serializa los reclamos de todas las instancias: cada uno ve confirmados los anteriores
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('order_events_relay'))", nativeQuery = true)
+    int lockRelay();
+
+    /*
+     * Reclama (IN_FLIGHT hasta leaseUntil) los eventos listos para enviar: PENDING vencidos o
+     * IN_FLIGHT con la concesión vencida (la instancia que los tenía se cayó). Se excluyen los
+     * que tienen por delante un evento del mismo pedido sin entregar y no vencido, así solo una
+     * instancia envía los eventos de un pedido y en orden de publishedSeq (orden de confirmación;
+     * el ID no lo sigue). Los eventos aún sin posición esperan a tenerla. Sin SKIP LOCKED: saltar
+     * una fila bloqueada podría reclamar el evento siguiente de su pedido antes que ella.
+     */
+    @Query(value = """
+        WITH due AS (
+            SELECT e.id FROM order_events e
+            WHERE e.published_seq IS NOT NULL
+              AND e.delivery_status IN ('PENDING', 'IN_FLIGHT')
+              AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now)
+              AND NOT EXISTS (
+                  SELECT 1 FROM order_events p
+                  WHERE p.order_id = e.order_id AND p.published_seq < e.published_seq
+                    AND p.delivery_status IN ('PENDING', 'IN_FLIGHT') AND p.next_attempt_at > :now)
+            ORDER BY e.published_seq
+            LIMIT :limit
+            FOR UPDATE
+        )
+        UPDATE order_events e SET delivery_status = 'IN_FLIGHT', next_attempt_at = :leaseUntil
+        FROM due WHERE e.id = due.id
+        RETURNING e.*
+        """, nativeQuery = true)
+    List<OrderEvent> claimDeliverable(@Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil,
+                                      @Param("limit") int limit);
+
+    List<OrderEvent> findByPublishedSeqGreaterThanOrderByPublishedSeqAsc(Long publishedSeq, Limit limit);
+
+    // Serializa a los publicadores de todas las instancias hasta el fin de la transacción
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext('order_events_published_seq'))", nativeQuery = true)
+    int lockPublisher();
+
+    // Solo ve eventos ya confirmados; dentro del lote se numeran en orden de creación
+    @Modifying
+    @Query(value = """
+        UPDATE order_events e SET published_seq = p.seq
+        FROM (
+            SELECT c.id, nextval('order_events_published_seq') AS seq
+            FROM (SELECT id FROM order_events WHERE published_seq IS NULL ORDER BY created_at, id LIMIT :limit) c
+        ) p
+        WHERE e.id = p.id
+        """, nativeQuery = true)
+    int assignPublishedSeq(@Param("limit") int limit);
+}
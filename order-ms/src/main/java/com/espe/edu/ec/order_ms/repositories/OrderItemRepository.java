@@ -0,0 +1,24 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.espe.edu.ec.order_ms.dtos.OrderItemProjection;
+import com.espe.edu.ec.order_ms.models.OrderItem;
+
+public interface OrderItemRepository extends JpaRepository<OrderItem, UUID>{
+
+    // Items de varios pedidos en una sola consulta (evita el N+1 de Order.items)
+    @Query("""
+        SELECT new com.espe.edu.ec.order_ms.dtos.OrderItemProjection(
+            i.order.id, i.id, i.description, i.quantity, i.weightKg, i.declaredValue, i.handlingFee)
+        FROM OrderItem i
+        WHERE i.order.id IN :orderIds
+        """)
+    List<OrderItemProjection> findProjectionsByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
+}
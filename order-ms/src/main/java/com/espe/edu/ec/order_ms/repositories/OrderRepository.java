@@ -1,12 +1,168 @@
 package com.espe.edu.ec.order_ms.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.espe.edu.ec.order_ms.dtos.OrderDistanceProjection;
+import com.espe.edu.ec.order_ms.dtos.OrderStateProjection;
+import com.espe.edu.ec.order_ms.dtos.OrderTransitionProjection;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
 import com.espe.edu.ec.order_ms.models.Order;
 
-public interface OrderRepository extends JpaRepository<Order, UUID>{
-    List<Order> findByCustomerId(UUID customerId);
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderArchiveRepository, OrderRollupRepository {
+
+    Optional<Order> findByCustomerIdAndIdempotencyKey(UUID customerId, String idempotencyKey);
+
+    // Haversine en SQL; el recuadro (min/max lat/lon) lo resuelve antes el índice geográfico
+    String PICKUP_DISTANCE_KM = """
+        6371 * 2 * asin(least(1, sqrt(
+            power(sin(radians(o.pickup_lat - :lat) / 2), 2)
+            + cos(radians(:lat)) * cos(radians(o.pickup_lat)) * power(sin(radians(o.pickup_lon - :lon) / 2), 2))))
+        """;
+    String DELIVERY_DISTANCE_KM = """
+        6371 * 2 * asin(least(1, sqrt(
+            power(sin(radians(o.delivery_lat - :lat) / 2), 2)
+            + cos(radians(:lat)) * cos(radians(o.delivery_lat)) * power(sin(radians(o.delivery_lon - :lon) / 2), 2))))
+        """;
+
+    // Historial del cliente, del más reciente al más antiguo (idx_orders_customer_created_at_id)
+    List<Order> findByCustomerIdOrderByCreatedAtDescIdDesc(UUID customerId, Limit limit);
+
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.customerId = :customerId
+          AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    List<Order> findCustomerPageBefore(@Param("customerId") UUID customerId, @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") UUID id, Limit limit);
+
+    // Solo lee la clave primaria (resuelto con el índice de PK, sin cargar jsonb ni items)
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Primera página del listado keyset ordenado por (created_at, id)
+    List<Order> findAllByOrderByCreatedAtAscIdAsc(Limit limit);
+
+    // Páginas siguientes: filas estrictamente posteriores al cursor (created_at, id)
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.createdAt > :createdAt OR (o.createdAt = :createdAt AND o.id > :id)
+        ORDER BY o.createdAt, o.id
+        """)
+    List<Order> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    // Lectura en streaming con fetch size JDBC; requiere una transacción abierta
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt, o.id")
+    Stream<Order> streamAllOrdered();
+
+    @Query(nativeQuery = true, value = "SELECT d.id AS \"id\", d.distance_km AS \"distanceKm\" FROM ("
+        + "SELECT o.id, " + PICKUP_DISTANCE_KM + " AS distance_km FROM orders o "
+        + "WHERE o.pickup_lat BETWEEN :minLat AND :maxLat AND o.pickup_lon BETWEEN :minLon AND :maxLon"
+        + ") d WHERE d.distance_km <= :radiusKm ORDER BY d.distance_km, d.id LIMIT :limit")
+    List<OrderDistanceProjection> findPickupsWithin(@Param("lat") double lat, @Param("lon") double lon,
+                                                    @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                    @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                                    @Param("radiusKm") double radiusKm, @Param("limit") int limit);
+
+    @Query(nativeQuery = true, value = "SELECT d.id AS \"id\", d.distance_km AS \"distanceKm\" FROM ("
+        + "SELECT o.id, " + DELIVERY_DISTANCE_KM + " AS distance_km FROM orders o "
+        + "WHERE o.delivery_lat BETWEEN :minLat AND :maxLat AND o.delivery_lon BETWEEN :minLon AND :maxLon"
+        + ") d WHERE d.distance_km <= :radiusKm ORDER BY d.distance_km, d.id LIMIT :limit")
+    List<OrderDistanceProjection> findDeliveriesWithin(@Param("lat") double lat, @Param("lon") double lon,
+                                                       @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                       @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                                       @Param("radiusKm") double radiusKm, @Param("limit") int limit);
+
+    // Pedidos CREATED sin conductor; usa idx_orders_status_pickup_geo (status, pickup_lat, pickup_lon)
+    @Query(nativeQuery = true, value = "SELECT d.id AS \"id\", d.distance_km AS \"distanceKm\" FROM ("
+        + "SELECT o.id, " + PICKUP_DISTANCE_KM + " AS distance_km FROM orders o "
+        + "WHERE o.status = 'CREATED' AND o.driver_id IS NULL "
+        + "AND o.pickup_lat BETWEEN :minLat AND :maxLat AND o.pickup_lon BETWEEN :minLon AND :maxLon"
+        + ") d WHERE d.distance_km <= :radiusKm ORDER BY d.distance_km, d.id LIMIT :limit")
+    List<OrderDistanceProjection> findNearestUnassigned(@Param("lat") double lat, @Param("lon") double lon,
+                                                        @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                                        @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                                        @Param("radiusKm") double radiusKm, @Param("limit") int limit);
+
+    // Candidatos del despacho en lote: FOR UPDATE SKIP LOCKED (lock.timeout = -2) para que
+    // dos despachos concurrentes no se bloqueen ni asignen el mismo pedido
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.status = :status AND o.driverId IS NULL
+          AND o.pickupLatitude BETWEEN :minLat AND :maxLat
+          AND o.pickupLongitude BETWEEN :minLon AND :maxLon
+        ORDER BY o.createdAt, o.id
+        """)
+    List<Order> lockDispatchCandidates(@Param("status") OrderStatus status,
+                                       @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+                                       @Param("minLon") double minLon, @Param("maxLon") double maxLon,
+                                       Limit limit);
+
+    // Transiciones condicionales: UPDATE sin cargar la entidad, aplicado solo si el pedido
+    // sigue como se leyó; devuelven 0 si cambió. Incrementan la versión para que una escritura
+    // optimista concurrente (p. ej. patchOrder) falle en lugar de pisarlas.
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.status = :to, o.version = o.version + 1, o.updatedAt = :now
+        WHERE o.id = :id AND o.version = :version
+        """)
+    int compareAndSetStatus(@Param("id") UUID id, @Param("version") Long version,
+                            @Param("to") OrderStatus to, @Param("now") LocalDateTime now);
+
+    // Transición en lote: devuelve las filas que cambió este mismo UPDATE (RETURNING), así los
+    // eventos y deltas no dependen de releer el pedido, que otra escritura pudo tocar después
+    @Query(nativeQuery = true, value = """
+        UPDATE orders SET status = :#{#to.name()}, version = version + 1, updated_at = :now
+        WHERE id IN :ids AND status = :#{#from.name()}
+        RETURNING id AS "id", driver_id AS "driverId"
+        """)
+    List<OrderTransitionProjection> transitionStatusFrom(@Param("ids") Collection<UUID> ids, @Param("from") OrderStatus from,
+                                                         @Param("to") OrderStatus to, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE Order o
+        SET o.driverId = :driverId, o.vehicleId = :vehicleId, o.version = o.version + 1, o.updatedAt = :now
+        WHERE o.id = :id AND o.status IN :from
+        """)
+    int assignDriverIfStatus(@Param("id") UUID id, @Param("from") Collection<OrderStatus> from,
+                             @Param("driverId") UUID driverId, @Param("vehicleId") String vehicleId,
+                             @Param("now") LocalDateTime now);
+
+    // Bloquea la fila hasta el fin de la transacción y devuelve el conductor asignado (vacío si no hay)
+    @Query(nativeQuery = true, value = "SELECT o.driver_id FROM orders o WHERE o.id = :id FOR UPDATE")
+    Optional<UUID> lockDriverIdById(@Param("id") UUID id);
+
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") UUID id);
+
+    @Query("SELECT new com.espe.edu.ec.order_ms.dtos.OrderStateProjection(o.id, o.customerId, o.status, o.driverId, o.version) FROM Order o WHERE o.id = :id")
+    Optional<OrderStateProjection> findStateById(@Param("id") UUID id);
+
+    @Query("SELECT new com.espe.edu.ec.order_ms.dtos.OrderStateProjection(o.id, o.customerId, o.status, o.driverId, o.version) FROM Order o WHERE o.id IN :ids")
+    List<OrderStateProjection> findStatesByIds(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,31 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.dtos.OrderRollupResponse;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+
+/**
+ * Acceso a order_rollup_deltas y order_daily_rollups (tablas creadas por Flyway). Los
+ * record* se llaman en la transacción que crea o cambia los pedidos, después de escribirlos.
+ */
+public interface OrderRollupRepository {
+
+    void recordCreated(Collection<UUID> ids);
+
+    // Pedidos que acaban de llegar a un estado que se contabiliza (cancelación o entrega)
+    void recordStatusReached(Collection<UUID> ids, OrderStatus status);
+
+    // Consolida hasta 'limit' deltas en order_daily_rollups; devuelve cuántos consumió
+    int foldDeltas(int limit);
+
+    // Recalcula [from, to) desde orders y orders_archive, descartando los deltas del rango
+    void rebuildRollups(LocalDate from, LocalDate to);
+
+    List<OrderRollupResponse> findRollups(LocalDate from, LocalDate to, RollupBucket bucket, VehicleType vehicleType);
+}
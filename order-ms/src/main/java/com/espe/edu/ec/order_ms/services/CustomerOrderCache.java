@@ -0,0 +1,130 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.espe.edu.ec.order_ms.dtos.CustomerOrderPage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché de la página de pedidos recientes de cada cliente. Acotada por cantidad de
+ * clientes (LRU) y por TTL; el TTL también acota cuánto puede tardar otra instancia del
+ * servicio en ver un cambio, ya que la invalidación es local.
+ *
+ * Cada mutación de pedidos de un cliente llama a invalidate(customerId). Para que una
+ * lectura concurrente no vuelva a guardar datos previos al commit, cada cliente cae en
+ * una franja con un contador de generación: quien lee toma la generación antes de ir a
+ * la base y solo guarda si no cambió. El contador se incrementa al invalidar y otra vez
+ * tras el commit de la transacción que modificó los pedidos.
+ */
+@Component
+@Slf4j
+public class CustomerOrderCache {
+
+    public static final int RECENT_PAGE_SIZE = 20;
+    private static final int GENERATION_STRIPES = 256;
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Counter hits;
+    private final Counter misses;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final Map<UUID, Entry> entries;
+
+    public CustomerOrderCache(MeterRegistry meterRegistry,
+                              @Value("${orders.customer-cache.max-entries:10000}") int maxEntries,
+                              @Value("${orders.customer-cache.ttl:30s}") Duration ttl) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.hits = Counter.builder("orders.customer.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("orders.customer.cache.requests").tag("result", "miss").register(meterRegistry);
+        // LinkedHashMap en orden de acceso: al superar maxEntries se descarta el menos usado
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > CustomerOrderCache.this.maxEntries;
+            }
+        };
+    }
+
+    public Optional<CustomerOrderPage> get(UUID customerId) {
+
+        lock.lock();
+        try {
+            Entry entry = entries.get(customerId);
+            if (entry != null && entry.cachedAt().plus(ttl).isAfter(Instant.now())) {
+                hits.increment();
+                return Optional.of(entry.page());
+            }
+            if (entry != null) entries.remove(customerId);
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    // Se toma antes de leer la base y se pasa a put()
+    public long generation(UUID customerId) {
+        return generations.get(stripe(customerId));
+    }
+
+    public void put(UUID customerId, CustomerOrderPage page, long generation) {
+
+        lock.lock();
+        try {
+            if (generations.get(stripe(customerId)) != generation) return;
+            entries.put(customerId, new Entry(page, Instant.now()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(UUID customerId) {
+
+        if (customerId == null) return;
+        evict(customerId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(customerId);
+                }
+            });
+        }
+    }
+
+    private void evict(UUID customerId) {
+
+        lock.lock();
+        try {
+            generations.incrementAndGet(stripe(customerId));
+            entries.remove(customerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripe(UUID customerId) {
+        return Math.floorMod(customerId.hashCode(), GENERATION_STRIPES);
+    }
+
+    private record Entry(CustomerOrderPage page, Instant cachedAt) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.util.UUID;
+
+import com.espe.edu.ec.order_ms.dtos.CustomerOrderPage;
+
+public interface CustomerOrderHistoryService {
+
+    CustomerOrderPage getOrdersByCustomer(UUID customerId, String cursor, int limit);
+
+}
@@ -0,0 +1,54 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.espe.edu.ec.order_ms.dtos.CustomerOrderPage;
+import com.espe.edu.ec.order_ms.dtos.OrderPageResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Historial de pedidos del cliente. La primera página con el tamaño por defecto se sirve
+ * desde CustomerOrderCache; este servicio no es transaccional para que un acierto de
+ * caché no tome una conexión del pool.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomerOrderHistoryServiceImpl implements CustomerOrderHistoryService {
+
+    private final OrderService orderService;
+    private final CustomerOrderCache customerOrderCache;
+
+    @Override
+    public CustomerOrderPage getOrdersByCustomer(UUID customerId, String cursor, int limit) {
+
+        boolean cacheable = cursor == null && limit == CustomerOrderCache.RECENT_PAGE_SIZE;
+        if (cacheable) {
+            CustomerOrderPage cached = customerOrderCache.get(customerId).orElse(null);
+            if (cached != null) return cached;
+        }
+
+        long generation = customerOrderCache.generation(customerId);
+        OrderPageResponse page = orderService.getOrdersByCustomer(customerId, cursor, limit);
+        CustomerOrderPage result = new CustomerOrderPage(page, etag(page));
+
+        if (cacheable) customerOrderCache.put(customerId, result, generation);
+        return result;
+    }
+
+    // ETag débil: cambia si cambia algún pedido de la página (su versión) o la composición de la página
+    private static String etag(OrderPageResponse page) {
+
+        StringBuilder fingerprint = new StringBuilder(page.getOrders().size() * 48);
+        for (OrderResponse order : page.getOrders()) {
+            fingerprint.append(order.getId()).append(':').append(order.getVersion()).append(';');
+        }
+        fingerprint.append(page.getNextCursor());
+        return "W/\"" + DigestUtils.md5DigestAsHex(fingerprint.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
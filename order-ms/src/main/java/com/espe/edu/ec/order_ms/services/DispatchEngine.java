@@ -0,0 +1,219 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.dtos.DispatchDriverRequest;
+import com.espe.edu.ec.order_ms.model_enums.DispatchMode;
+import com.espe.edu.ec.order_ms.models.Address;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Emparejamiento conductor-pedido para el despacho en lote. El costo de cada par es
+ * la distancia (en metros) del conductor a la recogida; los pares con vehículo
+ * incompatible o más lejanos que maxDistanceKm no son factibles.
+ *
+ *   GREEDY : ordena todos los pares factibles por distancia y toma el más cercano libre.
+ *   OPTIMAL: algoritmo húngaro, minimiza la distancia total maximizando antes la
+ *            cantidad de asignaciones. Si se agota el presupuesto de tiempo se
+ *            devuelve el resultado GREEDY.
+ *
+ * La matriz de costos y el ordenamiento de pares se evalúan en paralelo sobre un
+ * ForkJoinPool propio.
+ */
+@Component
+@Slf4j
+public class DispatchEngine {
+
+    // Costo de un par no factible: supera cualquier suma de distancias reales en metros
+    private static final long INFEASIBLE = 1_000_000_000_000L;
+    private static final int PAIR_INDEX_BITS = 32;
+
+    private final ForkJoinPool dispatchPool;
+
+    public DispatchEngine(@Value("${dispatch.parallelism:0}") int parallelism) {
+        // 0 = un hilo por núcleo disponible
+        this.dispatchPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public record Match(int driverIndex, int orderIndex, double distanceKm) {
+    }
+
+    public record Plan(DispatchMode mode, boolean timedOut, List<Match> matches) {
+    }
+
+    public Plan plan(List<DispatchDriverRequest> drivers, List<Order> orders, double maxDistanceKm,
+                     DispatchMode mode, Duration timeBudget) {
+
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        if (drivers.isEmpty() || orders.isEmpty()) return new Plan(mode, false, List.of());
+
+        long[][] costs = costMatrix(drivers, orders, Math.round(maxDistanceKm * 1000));
+        List<Match> greedy = greedy(costs, orders.size());
+        if (mode == DispatchMode.GREEDY) return new Plan(DispatchMode.GREEDY, false, greedy);
+
+        List<Match> optimal = hungarian(costs, orders.size(), deadline);
+        if (optimal == null) {
+            log.warn("Despacho OPTIMAL sin terminar en {} ({} conductores x {} pedidos); se aplica GREEDY",
+                    timeBudget, drivers.size(), orders.size());
+            return new Plan(DispatchMode.GREEDY, true, greedy);
+        }
+        return new Plan(DispatchMode.OPTIMAL, false, optimal);
+    }
+
+    private long[][] costMatrix(List<DispatchDriverRequest> drivers, List<Order> orders, long maxDistanceMeters) {
+
+        long[][] costs = new long[drivers.size()][];
+        dispatchPool.submit(() -> IntStream.range(0, drivers.size()).parallel().forEach(i -> {
+            DispatchDriverRequest driver = drivers.get(i);
+            Address position = new Address(null, null, driver.getLocation(), null);
+            long[] row = new long[orders.size()];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = cost(driver, position, orders.get(j), maxDistanceMeters);
+            }
+            costs[i] = row;
+        })).join();
+        return costs;
+    }
+
+    private static long cost(DispatchDriverRequest driver, Address position, Order order, long maxDistanceMeters) {
+
+        // Pedidos sin tipo de vehículo (anteriores a ese campo) aceptan cualquier vehículo
+        if (order.getVehicleType() != null && order.getVehicleType() != driver.getVehicleType()) return INFEASIBLE;
+
+        long meters;
+        try {
+            meters = Math.round(OrderUtils.calculateDistance(position, order.getPickupAddress()) * 1000);
+        } catch (IllegalArgumentException e) {
+            return INFEASIBLE;
+        }
+        return meters <= maxDistanceMeters ? meters : INFEASIBLE;
+    }
+
+    /**
+     * Cada par factible se codifica como (metros << 32 | i * columnas + j) para ordenarlos
+     * con Arrays.parallelSort sin objetos intermedios; a igual distancia gana el par
+     * de menor índice, así el resultado es determinista.
+     */
+    private List<Match> greedy(long[][] costs, int columns) {
+
+        long[] pairs = dispatchPool.submit(() -> IntStream.range(0, costs.length).parallel()
+                .mapToObj(i -> feasiblePairs(costs[i], i, columns))
+                .flatMapToLong(LongStream::of)
+                .toArray()).join();
+        Arrays.parallelSort(pairs);
+
+        boolean[] driverTaken = new boolean[costs.length];
+        boolean[] orderTaken = new boolean[columns];
+        int capacity = Math.min(costs.length, columns);
+        List<Match> matches = new ArrayList<>(capacity);
+
+        for (long pair : pairs) {
+            int index = (int) pair;
+            int i = Integer.divideUnsigned(index, columns);
+            int j = Integer.remainderUnsigned(index, columns);
+            if (driverTaken[i] || orderTaken[j]) continue;
+
+            driverTaken[i] = true;
+            orderTaken[j] = true;
+            matches.add(new Match(i, j, (pair >>> PAIR_INDEX_BITS) / 1000d));
+            if (matches.size() == capacity) break;
+        }
+        return matches;
+    }
+
+    private static long[] feasiblePairs(long[] row, int i, int columns) {
+        return IntStream.range(0, columns)
+            .filter(j -> row[j] < INFEASIBLE)
+            .mapToLong(j -> (row[j] << PAIR_INDEX_BITS) | Integer.toUnsignedLong(i * columns + j))
+            .toArray();
+    }
+
+    /**
+     * Algoritmo húngaro O(n^2 * m) con potenciales, sobre el lado menor como filas.
+     * Devuelve null si se supera el deadline.
+     */
+    private static List<Match> hungarian(long[][] costs, int columns, long deadline) {
+
+        boolean transposed = costs.length > columns;
+        int n = transposed ? columns : costs.length;
+        int m = transposed ? costs.length : columns;
+
+        long[] u = new long[n + 1];
+        long[] v = new long[m + 1];
+        int[] p = new int[m + 1];
+        int[] way = new int[m + 1];
+        long[] minv = new long[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int row = 1; row <= n; row++) {
+            if (System.nanoTime() > deadline) return null;
+
+            p[0] = row;
+            int j0 = 0;
+            Arrays.fill(minv, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = p[j0];
+                long delta = Long.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) continue;
+                    long cost = transposed ? costs[j - 1][i0 - 1] : costs[i0 - 1][j - 1];
+                    long reduced = cost - u[i0] - v[j];
+                    if (reduced < minv[j]) {
+                        minv[j] = reduced;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (p[j0] != 0);
+            do {
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        List<Match> matches = new ArrayList<>(n);
+        for (int j = 1; j <= m; j++) {
+            if (p[j] == 0) continue;
+            int driver = transposed ? j - 1 : p[j] - 1;
+            int order = transposed ? p[j] - 1 : j - 1;
+            long cost = costs[driver][order];
+            // El húngaro completa la asignación con pares no factibles; se descartan
+            if (cost < INFEASIBLE) matches.add(new Match(driver, order, cost / 1000d));
+        }
+        return matches;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchPool.shutdown();
+    }
+}
@@ -0,0 +1,10 @@
+package com.espe.edu.ec.order_ms.services;
+
+import com.espe.edu.ec.order_ms.dtos.DispatchRequest;
+import com.espe.edu.ec.order_ms.dtos.DispatchResponse;
+
+public interface DispatchService {
+
+    DispatchResponse dispatchOrders(DispatchRequest request);
+
+}
@@ -0,0 +1,158 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.espe.edu.ec.order_ms.dtos.DispatchAssignment;
+import com.espe.edu.ec.order_ms.dtos.DispatchDriverRequest;
+import com.espe.edu.ec.order_ms.dtos.DispatchRequest;
+import com.espe.edu.ec.order_ms.dtos.DispatchResponse;
+import com.espe.edu.ec.order_ms.mappers.OrderEventMapper;
+import com.espe.edu.ec.order_ms.model_enums.DispatchMode;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+import com.espe.edu.ec.order_ms.repositories.OrderEventRepository;
+import com.espe.edu.ec.order_ms.repositories.OrderRepository;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class DispatchServiceImpl implements DispatchService {
+
+    public static final int MAX_DISPATCH_CANDIDATES = 5000;
+    private static final double DEFAULT_MAX_DISTANCE_KM = 10;
+
+    private final OrderRepository orderRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final DispatchEngine dispatchEngine;
+    private final CustomerOrderCache customerOrderCache;
+    private final Duration maxTimeBudget;
+
+    public DispatchServiceImpl(OrderRepository orderRepository,
+                               OrderEventRepository orderEventRepository,
+                               DispatchEngine dispatchEngine,
+                               CustomerOrderCache customerOrderCache,
+                               @Value("${dispatch.time-budget:2s}") Duration maxTimeBudget) {
+        this.orderRepository = orderRepository;
+        this.orderEventRepository = orderEventRepository;
+        this.dispatchEngine = dispatchEngine;
+        this.customerOrderCache = customerOrderCache;
+        this.maxTimeBudget = maxTimeBudget;
+    }
+
+    /**
+     * Despacha en una sola transacción: bloquea (SKIP LOCKED) los pedidos CREATED sin
+     * conductor dentro del recuadro que cubre a todos los conductores, calcula el
+     * emparejamiento y asigna conductor y vehículo a cada pedido emparejado, con su
+     * evento DRIVER_ASSIGNED. Los pedidos bloqueados por otro despacho en curso se omiten.
+     */
+    @Override
+    @Transactional
+    public DispatchResponse dispatchOrders(DispatchRequest request) {
+
+        List<DispatchDriverRequest> drivers = request.getDrivers();
+        DispatchMode mode = request.getMode() != null ? request.getMode() : DispatchMode.GREEDY;
+        double maxDistanceKm = request.getMaxDistanceKm() != null ? request.getMaxDistanceKm() : DEFAULT_MAX_DISTANCE_KM;
+        Duration timeBudget = resolveTimeBudget(request.getTimeBudgetMs());
+
+        if (!(maxDistanceKm > 0) || maxDistanceKm > OrderUtils.MAX_COVERAGE)
+            throw new IllegalArgumentException("La distancia máxima debe estar entre 0 y " + OrderUtils.MAX_COVERAGE + " km.");
+
+        Set<UUID> driverIds = new HashSet<>();
+        for (DispatchDriverRequest driver : drivers) {
+            if (!driverIds.add(driver.getDriverId()))
+                throw new IllegalArgumentException("Conductor repetido en el despacho: " + driver.getDriverId());
+        }
+
+        OrderUtils.BoundingBox area = coveringBox(drivers, maxDistanceKm);
+        List<Order> candidates = orderRepository.lockDispatchCandidates(OrderStatus.CREATED,
+                area.minLatitude(), area.maxLatitude(), area.minLongitude(), area.maxLongitude(),
+                Limit.of(MAX_DISPATCH_CANDIDATES));
+
+        DispatchEngine.Plan plan = dispatchEngine.plan(drivers, candidates, maxDistanceKm, mode, timeBudget);
+
+        List<DispatchAssignment> assignments = new ArrayList<>(plan.matches().size());
+        List<OrderEvent> events = new ArrayList<>(plan.matches().size());
+        boolean[] assigned = new boolean[drivers.size()];
+        double totalDistanceKm = 0;
+
+        for (DispatchEngine.Match match : plan.matches()) {
+            DispatchDriverRequest driver = drivers.get(match.driverIndex());
+            Order order = candidates.get(match.orderIndex());
+
+            order.setDriverId(driver.getDriverId());
+            order.setVehicleId(driver.getVehicleId());
+            events.add(OrderEventMapper.orderToEvent(order, OrderEventType.DRIVER_ASSIGNED));
+            customerOrderCache.invalidate(order.getCustomerId());
+
+            assigned[match.driverIndex()] = true;
+            totalDistanceKm += match.distanceKm();
+            assignments.add(DispatchAssignment.builder()
+                .orderId(order.getId())
+                .driverId(driver.getDriverId())
+                .vehicleId(driver.getVehicleId())
+                .distanceKm(match.distanceKm())
+                .build());
+        }
+        orderEventRepository.saveAll(events);
+
+        List<UUID> unassignedDriverIds = new ArrayList<>();
+        for (int i = 0; i < drivers.size(); i++) {
+            if (!assigned[i]) unassignedDriverIds.add(drivers.get(i).getDriverId());
+        }
+
+        log.info("Despacho {}: {} conductores, {} pedidos candidatos, {} asignaciones",
+                plan.mode(), drivers.size(), candidates.size(), assignments.size());
+
+        return DispatchResponse.builder()
+            .mode(plan.mode())
+            .timedOut(plan.timedOut())
+            .candidateOrders(candidates.size())
+            .assignedCount(assignments.size())
+            .totalDistanceKm(totalDistanceKm)
+            .assignments(assignments)
+            .unassignedDriverIds(unassignedDriverIds)
+            .build();
+    }
+
+    private Duration resolveTimeBudget(Long timeBudgetMs) {
+
+        if (timeBudgetMs == null) return maxTimeBudget;
+        if (timeBudgetMs <= 0)
+            throw new IllegalArgumentException("El presupuesto de tiempo debe ser mayor a cero.");
+
+        Duration requested = Duration.ofMillis(timeBudgetMs);
+        return requested.compareTo(maxTimeBudget) < 0 ? requested : maxTimeBudget;
+    }
+
+    // Unión de los recuadros de búsqueda de todos los conductores
+    private static OrderUtils.BoundingBox coveringBox(List<DispatchDriverRequest> drivers, double radiusKm) {
+
+        double minLat = 90, maxLat = -90, minLon = 180, maxLon = -180;
+        for (DispatchDriverRequest driver : drivers) {
+            if (driver.getLocation().getLatitude() == null || driver.getLocation().getLongitude() == null)
+                throw new IllegalArgumentException("Las coordenadas del conductor no pueden ser nulas: " + driver.getDriverId());
+
+            OrderUtils.BoundingBox box = OrderUtils.boundingBox(driver.getLocation().getLatitude(),
+                    driver.getLocation().getLongitude(), radiusKm);
+            minLat = Math.min(minLat, box.minLatitude());
+            maxLat = Math.max(maxLat, box.maxLatitude());
+            minLon = Math.min(minLon, box.minLongitude());
+            maxLon = Math.max(maxLon, box.maxLongitude());
+        }
+        return new OrderUtils.BoundingBox(minLat, maxLat, minLon, maxLon);
+    }
+}
@@ -0,0 +1,18 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.espe.edu.ec.order_ms.dtos.OrderRollupResponse;
+import com.espe.edu.ec.order_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+
+public interface OrderAnalyticsService {
+
+    List<OrderRollupResponse> getRollups(LocalDate from, LocalDate to, RollupBucket bucket, VehicleType vehicleType);
+
+    int foldDeltas(int batchSize);
+
+    void rebuildChunk(LocalDate from, LocalDate to);
+
+}
@@ -0,0 +1,56 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.espe.edu.ec.order_ms.dtos.OrderRollupResponse;
+import com.espe.edu.ec.order_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.repositories.OrderRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class OrderAnalyticsServiceImpl implements OrderAnalyticsService {
+
+    // Con intervalos diarios, ~3 años por consulta
+    public static final int MAX_RANGE_DAYS = 1100;
+
+    private final OrderRepository orderRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderRollupResponse> getRollups(LocalDate from, LocalDate to, RollupBucket bucket, VehicleType vehicleType) {
+
+        if (from == null || to == null || !from.isBefore(to))
+            throw new IllegalArgumentException("El rango de fechas es inválido: 'from' debe ser anterior a 'to'.");
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS)
+            throw new IllegalArgumentException("El rango de fechas no puede superar " + MAX_RANGE_DAYS + " días.");
+
+        return orderRepository.findRollups(from, to, bucket != null ? bucket : RollupBucket.DAY, vehicleType);
+    }
+
+    @Override
+    @Transactional
+    public int foldDeltas(int batchSize) {
+        return orderRepository.foldDeltas(batchSize);
+    }
+
+    /**
+     * REPEATABLE READ: el borrado de deltas y el recuento ven la misma instantánea. Un pedido
+     * confirmado después no entra en el recuento y su delta sobrevive para la consolidación,
+     * así no se cuenta dos veces. Si choca con una consolidación concurrente la transacción
+     * falla por serialización y OrderRollupJob reintenta el tramo.
+     */
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void rebuildChunk(LocalDate from, LocalDate to) {
+        orderRepository.rebuildRollups(from, to);
+    }
+}
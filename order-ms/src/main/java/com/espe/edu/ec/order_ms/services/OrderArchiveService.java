@@ -0,0 +1,8 @@
+package com.espe.edu.ec.order_ms.services;
+
+public interface OrderArchiveService {
+
+    // Mueve hasta batchSize pedidos finales vencidos a orders_archive; devuelve cuántos movió
+    int archiveBatch(int batchSize);
+
+}
@@ -0,0 +1,73 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.repositories.OrderRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Saca de orders los pedidos en estado final con más de 'retention' de antigüedad. Así
+ * la tabla caliente y sus índices solo contienen pedidos activos o recientes, y las
+ * búsquedas de pedidos CREATED dejan de recorrer años de entregas terminadas.
+ */
+@Service
+@Slf4j
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final Set<OrderStatus> FINAL_STATUSES = EnumSet.copyOf(Arrays.stream(OrderStatus.values())
+        .filter(OrderStateMachine::isFinal)
+        .toList());
+
+    private final OrderRepository orderRepository;
+    private final CustomerOrderCache customerOrderCache;
+    private final Duration retention;
+    private final Counter archived;
+
+    public OrderArchiveServiceImpl(OrderRepository orderRepository, CustomerOrderCache customerOrderCache,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${orders.archive.retention:180d}") Duration retention) {
+        this.orderRepository = orderRepository;
+        this.customerOrderCache = customerOrderCache;
+        this.retention = retention;
+        this.archived = Counter.builder("orders.archived")
+            .description("Pedidos finales movidos a orders_archive")
+            .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public int archiveBatch(int batchSize) {
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        Optional<LocalDateTime> oldest = orderRepository.findOldestArchivable(FINAL_STATUSES, cutoff);
+        if (oldest.isEmpty()) return 0;
+
+        // Cualquier pedido del lote cae entre el más antiguo y el corte; sus meses deben tener partición
+        orderRepository.createArchivePartitions(oldest.get(), cutoff);
+        List<UUID> customers = orderRepository.archiveBatch(FINAL_STATUSES, cutoff, batchSize);
+
+        // La página reciente de un cliente con pocos pedidos puede incluir los archivados
+        for (UUID customerId : new HashSet<>(customers)) {
+            customerOrderCache.invalidate(customerId);
+        }
+        archived.increment(customers.size());
+        log.info("Archivados {} pedidos finales anteriores a {}", customers.size(), cutoff);
+        return customers.size();
+    }
+}
@@ -0,0 +1,17 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.espe.edu.ec.order_ms.dtos.OrderEventResponse;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+
+public interface OrderEventService {
+
+    List<OrderEventResponse> getEventsAfter(long afterSeq, int limit);
+
+    int publishPending(int batchSize);
+
+    List<OrderEvent> claimForDelivery(int batchSize, Duration lease);
+
+}
@@ -0,0 +1,69 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.espe.edu.ec.order_ms.dtos.OrderEventResponse;
+import com.espe.edu.ec.order_ms.mappers.OrderEventMapper;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+import com.espe.edu.ec.order_ms.repositories.OrderEventRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class OrderEventServiceImpl implements OrderEventService {
+
+    public static final int MAX_EVENTS_PER_PAGE = 1000;
+
+    private final OrderEventRepository orderEventRepository;
+
+    /**
+     * Devuelve eventos con publishedSeq mayor a afterSeq en orden ascendente. Los eventos
+     * aún sin posición (recién confirmados) aparecen en una consulta posterior con una
+     * posición mayor a cualquiera ya entregada.
+     */
+    @Override
+    // Sin readOnly a propósito: el consumidor avanza su cursor con esta página y no debe leerla de la réplica atrasada
+    @Transactional
+    public List<OrderEventResponse> getEventsAfter(long afterSeq, int limit) {
+
+        if (limit < 1 || limit > MAX_EVENTS_PER_PAGE)
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_EVENTS_PER_PAGE + ".");
+
+        return orderEventRepository
+            .findByPublishedSeqGreaterThanOrderByPublishedSeqAsc(afterSeq, Limit.of(limit))
+            .stream()
+            .map(OrderEventMapper::entityToResponse)
+            .toList();
+    }
+
+    /**
+     * Asigna posición a los eventos confirmados que aún no la tienen. El bloqueo hace que
+     * un solo publicador (entre todas las instancias) numere a la vez y confirme antes de
+     * que el siguiente tome números: las posiciones se hacen visibles en orden creciente.
+     */
+    @Override
+    @Transactional
+    public int publishPending(int batchSize) {
+        orderEventRepository.lockPublisher();
+        return orderEventRepository.assignPublishedSeq(batchSize);
+    }
+
+    /**
+     * Reclama un lote de eventos para entregarlos a Fleet. La transacción confirma el reclamo
+     * antes de la entrega: otra instancia no los toma hasta que venza la concesión.
+     */
+    @Override
+    @Transactional
+    public List<OrderEvent> claimForDelivery(int batchSize, Duration lease) {
+        orderEventRepository.lockRelay();
+        LocalDateTime now = LocalDateTime.now();
+        return orderEventRepository.claimDeliverable(now, now.plus(lease), batchSize);
+    }
+}
@@ -0,0 +1,12 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.util.stream.Stream;
+
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteResponse;
+
+public interface OrderQuoteService {
+
+    Stream<OrderQuoteResponse> quoteRoutes(OrderQuoteRequest request);
+
+}
@@ -0,0 +1,95 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderQuoteResponse;
+import com.espe.edu.ec.order_ms.dtos.QuoteRoute;
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.mappers.QuoteMapper;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cotización masiva de rutas sin persistir nada. La tarifa se resuelve una sola vez
+ * desde la TariffCache y las rutas se tarifan en paralelo, por bloques, en un
+ * ForkJoinPool propio para no competir con el pool común ni con las transacciones
+ * de escritura. Cada bloque se entrega en orden apenas termina, así la respuesta
+ * empieza a fluir antes de cotizar todas las rutas.
+ */
+@Service
+@Slf4j
+public class OrderQuoteServiceImpl implements OrderQuoteService {
+
+    private static final int QUOTE_CHUNK_SIZE = 2048;
+
+    private final TariffCache tariffCache;
+    private final PricingEngine pricingEngine;
+    private final ForkJoinPool quotePool;
+
+    public OrderQuoteServiceImpl(TariffCache tariffCache,
+                                 PricingEngine pricingEngine,
+                                 @Value("${pricing.quotes.parallelism:0}") int parallelism) {
+        this.tariffCache = tariffCache;
+        this.pricingEngine = pricingEngine;
+        // 0 = un hilo por núcleo disponible
+        this.quotePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Valida la tarifa antes de devolver el stream, de modo que una tarifa inexistente
+     * se responde como 400 y no a mitad de la respuesta. Los errores de cada ruta
+     * (coordenadas inválidas, fuera de cobertura) se reportan en su propia línea.
+     */
+    @Override
+    public Stream<OrderQuoteResponse> quoteRoutes(OrderQuoteRequest request) {
+
+        TariffRates rates = tariffCache.find(request.getVehicleType(), request.getZoneId())
+                .orElseThrow(() -> new IllegalArgumentException("No hay tarifa configurada para este vehículo"));
+
+        List<QuoteRoute> routes = request.getRoutes();
+        int chunks = (routes.size() + QUOTE_CHUNK_SIZE - 1) / QUOTE_CHUNK_SIZE;
+        log.debug("Cotizando {} rutas en {} bloques", routes.size(), chunks);
+
+        return IntStream.range(0, chunks)
+            .mapToObj(chunk -> quoteChunk(routes, rates, chunk * QUOTE_CHUNK_SIZE,
+                    Math.min(routes.size(), (chunk + 1) * QUOTE_CHUNK_SIZE)))
+            .flatMap(List::stream);
+    }
+
+    // Un parallel stream lanzado desde una tarea del pool usa ese pool y no el común
+    private List<OrderQuoteResponse> quoteChunk(List<QuoteRoute> routes, TariffRates rates, int from, int to) {
+        return quotePool.submit(() -> IntStream.range(from, to)
+                .parallel()
+                .mapToObj(index -> quoteRoute(index, routes.get(index), rates))
+                .toList())
+            .join();
+    }
+
+    private OrderQuoteResponse quoteRoute(int index, QuoteRoute route, TariffRates rates) {
+
+        if (route == null) return QuoteMapper.errorToResponse(index, "La ruta no puede ser nula.");
+
+        try {
+            double distance = OrderUtils.calculateDistance(route.getPickupAddress(), route.getDeliveryAddress());
+            if (distance > OrderUtils.MAX_COVERAGE)
+                return QuoteMapper.errorToResponse(index, "La distancia excede la cobertura operativa (Max 50km).");
+            return QuoteMapper.quoteToResponse(index, pricingEngine.quote(distance, rates));
+        } catch (IllegalArgumentException e) {
+            return QuoteMapper.errorToResponse(index, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        quotePool.shutdown();
+    }
+}
@@ -1,22 +1,40 @@
 package com.espe.edu.ec.order_ms.services;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import com.espe.edu.ec.order_ms.dtos.AssignDriverRequest;
+import com.espe.edu.ec.order_ms.dtos.NearbyOrderResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderBatchResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderBulkStatusResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderPageResponse;
 import com.espe.edu.ec.order_ms.dtos.OrderPatchRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.model_enums.AddressType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
 
 public interface OrderService {
 
-    OrderResponse createOrder(OrderRequest orderRequest);
+    OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey); // idempotencyKey opcional
+    OrderBatchResponse createOrders(List<OrderRequest> orderRequests);
     OrderResponse getOrder(UUID id);
-    List<OrderResponse> getOrders();
+    OrderPageResponse getOrders(String cursor, int limit);
+    void streamOrders(Consumer<OrderResponse> consumer);
     boolean orderExists(UUID id);
+    Set<UUID> findExistingOrderIds(Collection<UUID> ids);
     OrderResponse patchOrder(UUID id, OrderPatchRequest orderPatchRequest);
     void cancelOrder(UUID id);
-    List<OrderResponse> getOrdersByCustomer(UUID customerId);
+    void transitionOrder(UUID id, OrderStatus newStatus);
+    OrderBulkStatusResponse transitionOrders(Collection<UUID> ids, OrderStatus newStatus);
+    OrderPageResponse getOrdersByCustomer(UUID customerId, String cursor, int limit);
+    List<OrderResponse> getArchivedOrdersByCustomer(UUID customerId, LocalDate from, LocalDate to, int limit);
+    List<NearbyOrderResponse> findOrdersWithinRadius(double latitude, double longitude, double radiusKm, AddressType addressType, int limit);
+    List<NearbyOrderResponse> findNearestUnassignedOrders(double latitude, double longitude, double radiusKm, int limit);
     OrderResponse assignDriverAndVehicle(UUID orderId, AssignDriverRequest request);
 
 }
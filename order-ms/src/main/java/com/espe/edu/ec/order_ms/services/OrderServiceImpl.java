@@ -1,27 +1,64 @@
 package com.espe.edu.ec.order_ms.services;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.espe.edu.ec.order_ms.dtos.AssignDriverRequest;
+import com.espe.edu.ec.order_ms.dtos.NearbyOrderResponse;
 import com.espe.edu.ec.order_ms.dtos.DeliveryOrderPatchRequest;
+import com.espe.edu.ec.order_ms.dtos.OrderBatchItemResult;
+import com.espe.edu.ec.order_ms.dtos.OrderBatchResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderBulkStatusResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderCursor;
+import com.espe.edu.ec.order_ms.dtos.OrderDistanceProjection;
+import com.espe.edu.ec.order_ms.dtos.OrderItemProjection;
+import com.espe.edu.ec.order_ms.dtos.OrderItemResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderPageResponse;
 import com.espe.edu.ec.order_ms.dtos.OrderPatchRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderRequest;
 import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderStateProjection;
+import com.espe.edu.ec.order_ms.dtos.OrderTransitionProjection;
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.exceptions.IdempotencyConflictException;
+import com.espe.edu.ec.order_ms.exceptions.OrderConflictException;
+import com.espe.edu.ec.order_ms.mappers.OrderCursorMapper;
+import com.espe.edu.ec.order_ms.mappers.OrderEventMapper;
+import com.espe.edu.ec.order_ms.mappers.OrderItemMapper;
 import com.espe.edu.ec.order_ms.mappers.OrderMapper;
+import com.espe.edu.ec.order_ms.model_enums.AddressType;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
 import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
 import com.espe.edu.ec.order_ms.model_enums.VehicleType;
-import com.espe.edu.ec.order_ms.models.Address;
 import com.espe.edu.ec.order_ms.models.Order;
-import com.espe.edu.ec.order_ms.models.Tariff;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+import com.espe.edu.ec.order_ms.repositories.OrderEventRepository;
+import com.espe.edu.ec.order_ms.repositories.OrderItemRepository;
 import com.espe.edu.ec.order_ms.repositories.OrderRepository;
-import com.espe.edu.ec.order_ms.repositories.TariffRepository;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
 
-import jakarta.transaction.Transactional;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,44 +67,239 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    public static final int MAX_NEARBY_RESULTS = 200;
+    public static final int MAX_ARCHIVE_RANGE_DAYS = 366;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    // Debe coincidir con spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int INSERT_BATCH_SIZE = 50;
+
     private final OrderRepository orderRepository;
-    private final TariffRepository tariffRepository;
-    // private final DriverEventProducer driverEventProducer;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final TariffCache tariffCache;
+    private final PricingEngine pricingEngine;
+    private final OrderStateMachine orderStateMachine;
+    private final CustomerOrderCache customerOrderCache;
+    private final IdempotencyStore<OrderResponse> orderIdempotencyStore;
+    private final EntityManager entityManager;
+    private final Validator validator;
 
     @Override
     @Transactional
-    public OrderResponse createOrder(OrderRequest orderRequest) {
+    public OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey) {
 
         log.info("Iniciando creación de pedido para cliente: {}", orderRequest.getCustomerId());
 
+        String storeKey = null;
+        String fingerprint = null;
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)
+                throw new IllegalArgumentException("La Idempotency-Key debe tener entre 1 y " + MAX_IDEMPOTENCY_KEY_LENGTH + " caracteres.");
+
+            // La clave es por cliente: dos clientes pueden usar el mismo valor
+            storeKey = orderRequest.getCustomerId() + ":" + idempotencyKey;
+            fingerprint = IdempotencyStore.fingerprint(orderRequest);
+            Optional<OrderResponse> replay = orderIdempotencyStore.begin(storeKey, fingerprint);
+            if (replay.isPresent()) return replay.get();
+
+            // Clave expulsada de memoria o usada en otra instancia: la fila ya creada es la respuesta
+            Optional<Order> existing = orderRepository.findByCustomerIdAndIdempotencyKey(orderRequest.getCustomerId(), idempotencyKey);
+            if (existing.isPresent()) {
+                // Filas sin huella: creadas antes de guardarla, no se pueden comparar
+                String storedFingerprint = existing.get().getIdempotencyFingerprint();
+                if (storedFingerprint != null && !storedFingerprint.equals(fingerprint))
+                    throw new IdempotencyConflictException("La Idempotency-Key ya se usó con una solicitud distinta.");
+                OrderResponse response = OrderMapper.entityToOrderResponse(existing.get());
+                orderIdempotencyStore.complete(storeKey, fingerprint, response);
+                return response;
+            }
+        }
+
         Order order = OrderMapper.orderRequestToEntity(orderRequest);
-        calculateOrderValues(order, orderRequest.getVehicleType());
-        
-        Order newOrder = orderRepository.save(order);
-        return OrderMapper.entityToOrderResponse(newOrder);
+        order.setIdempotencyKey(idempotencyKey);
+        order.setIdempotencyFingerprint(fingerprint);
+        calculateOrderValues(order, orderRequest.getVehicleType(), orderRequest.getZoneId());
+
+        Order newOrder;
+        try {
+            // flush inmediato: una clave duplicada por una solicitud concurrente falla aquí, no en el commit
+            newOrder = idempotencyKey != null ? orderRepository.saveAndFlush(order) : orderRepository.save(order);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && Order.IDEMPOTENCY_KEY_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName()))
+                throw new IdempotencyConflictException("Hay una solicitud en curso con la misma Idempotency-Key.");
+            throw e;
+        }
+        customerOrderCache.invalidate(newOrder.getCustomerId());
+        orderEventRepository.save(OrderEventMapper.orderToEvent(newOrder, OrderEventType.ORDER_CREATED));
+        orderRepository.recordCreated(List.of(newOrder.getId()));
+        OrderResponse response = OrderMapper.entityToOrderResponse(newOrder);
+        if (storeKey != null) orderIdempotencyStore.complete(storeKey, fingerprint, response);
+        return response;
 
     }
 
     @Override
+    @Transactional(readOnly = true)
     public OrderResponse getOrder(UUID id) {
 
-        Order foundOrder = orderRepository.findById(id)
+        Optional<Order> foundOrder = orderRepository.findById(id);
+        if (foundOrder.isPresent()) return OrderMapper.entityToOrderResponse(foundOrder.get());
+
+        // Pedidos finales antiguos ya movidos por OrderArchiveJob
+        return orderRepository.findArchivedById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
-        return OrderMapper.entityToOrderResponse(foundOrder);
 
     }
 
     @Override
-    public List<OrderResponse> getOrders() {
-        return orderRepository.findAll()
+    @Transactional
+    public OrderBatchResponse createOrders(List<OrderRequest> orderRequests) {
+
+        log.info("Iniciando creación de lote de {} pedidos", orderRequests.size());
+
+        // 1. Validar y tarifar todo el lote antes de tocar la base
+        OrderBatchItemResult[] results = new OrderBatchItemResult[orderRequests.size()];
+        List<Integer> pendingIndexes = new ArrayList<>(orderRequests.size());
+        List<Order> pendingOrders = new ArrayList<>(orderRequests.size());
+
+        for (int i = 0; i < orderRequests.size(); i++) {
+            OrderRequest orderRequest = orderRequests.get(i);
+            try {
+                validate(orderRequest);
+                Order order = OrderMapper.orderRequestToEntity(orderRequest);
+                calculateOrderValues(order, orderRequest.getVehicleType(), orderRequest.getZoneId());
+                pendingIndexes.add(i);
+                pendingOrders.add(order);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                results[i] = OrderBatchItemResult.builder().index(i).created(false).error(e.getMessage()).build();
+            }
+        }
+
+        // 2. Persistir por bloques: Hibernate agrupa los INSERT de pedidos e items en batches JDBC
+        for (int i = 0; i < pendingOrders.size(); i++) {
+            entityManager.persist(pendingOrders.get(i));
+            customerOrderCache.invalidate(pendingOrders.get(i).getCustomerId());
+            entityManager.persist(OrderEventMapper.orderToEvent(pendingOrders.get(i), OrderEventType.ORDER_CREATED));
+
+            boolean endOfChunk = (i + 1) % INSERT_BATCH_SIZE == 0 || i == pendingOrders.size() - 1;
+            if (endOfChunk) {
+                entityManager.flush();
+                int chunkStart = i - (i % INSERT_BATCH_SIZE);
+                orderRepository.recordCreated(pendingOrders.subList(chunkStart, i + 1).stream().map(Order::getId).toList());
+                for (int j = chunkStart; j <= i; j++) {
+                    results[pendingIndexes.get(j)] = OrderBatchItemResult.builder()
+                        .index(pendingIndexes.get(j))
+                        .created(true)
+                        .order(OrderMapper.entityToOrderResponse(pendingOrders.get(j)))
+                        .build();
+                }
+                entityManager.clear();
+            }
+        }
+
+        return OrderBatchResponse.builder()
+            .createdCount(pendingOrders.size())
+            .failedCount(orderRequests.size() - pendingOrders.size())
+            .results(List.of(results))
+            .build();
+    }
+
+    private void validate(OrderRequest orderRequest) {
+
+        if (orderRequest == null) throw new IllegalArgumentException("Datos de pedido inválidos.");
+
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(orderRequest);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrders(String cursor, int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+
+        // Se pide una fila extra para saber si existe una página siguiente sin hacer un COUNT
+        OrderCursor position = OrderCursorMapper.decode(cursor);
+        List<Order> orders = position == null
+            ? orderRepository.findAllByOrderByCreatedAtAscIdAsc(Limit.of(limit + 1))
+            : orderRepository.findPageAfter(position.createdAt(), position.id(), Limit.of(limit + 1));
+
+        boolean hasNext = orders.size() > limit;
+        List<Order> page = hasNext ? orders.subList(0, limit) : orders;
+
+        return OrderPageResponse.builder()
+            .orders(toOrderResponses(page))
+            .nextCursor(hasNext ? OrderCursorMapper.encode(page.get(limit - 1)) : null)
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamOrders(Consumer<OrderResponse> consumer) {
+
+        // Los pedidos se procesan por bloques: una consulta de items por bloque, se entregan
+        // y se limpia el contexto de persistencia, de modo que la memoria no crece con la tabla.
+        try (Stream<Order> orders = orderRepository.streamAllOrdered()) {
+            List<Order> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            orders.forEach(order -> {
+                chunk.add(order);
+                if (chunk.size() == STREAM_CHUNK_SIZE) emitChunk(chunk, consumer);
+            });
+            emitChunk(chunk, consumer);
+        }
+    }
+
+    private void emitChunk(List<Order> chunk, Consumer<OrderResponse> consumer) {
+        toOrderResponses(chunk).forEach(consumer);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    /**
+     * Mapea una lista de pedidos resolviendo todos sus items con una única consulta de
+     * proyección, en lugar de inicializar Order.items pedido por pedido.
+     */
+    private List<OrderResponse> toOrderResponses(List<Order> orders) {
+
+        if (orders.isEmpty()) return List.of();
+
+        List<UUID> orderIds = orders.stream().map(Order::getId).toList();
+        Map<UUID, List<OrderItemResponse>> itemsByOrder = orderItemRepository.findProjectionsByOrderIds(orderIds)
             .stream()
-            .map(OrderMapper::entityToOrderResponse) 
+            .collect(Collectors.groupingBy(OrderItemProjection::orderId,
+                Collectors.mapping(OrderItemMapper::projectionToResponse, Collectors.toList())));
+
+        return orders.stream()
+            .map(order -> OrderMapper.entityToOrderResponse(order, itemsByOrder.getOrDefault(order.getId(), List.of())))
             .toList();
     }
 
     @Override
+    // Sin readOnly a propósito: billing pregunta por pedidos recién creados y la réplica podría no tenerlos aún
+    @Transactional
     public boolean orderExists(UUID id){
-        return getOrder(id) == null ? false : true;
+        return orderRepository.existsById(id) || !orderRepository.findArchivedIds(List.of(id)).isEmpty();
+    }
+
+    @Override
+    // Sin readOnly a propósito: billing pregunta por pedidos recién creados y la réplica podría no tenerlos aún
+    @Transactional
+    public Set<UUID> findExistingOrderIds(Collection<UUID> ids){
+        Set<UUID> existing = new HashSet<>(orderRepository.findExistingIds(ids));
+        if (existing.size() < ids.size()) {
+            List<UUID> missing = ids.stream().filter(id -> !existing.contains(id)).toList();
+            existing.addAll(orderRepository.findArchivedIds(missing));
+        }
+        return existing;
     }
 
     @Override
@@ -77,8 +309,8 @@ public class OrderServiceImpl implements OrderService {
         Order foundOrder = orderRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
 
-        if (!OrderStatus.CREATED.equals(foundOrder.getStatus()))
-            throw new IllegalStateException("Solo se pueden editar pedidos en estado CREATED");
+        if (!OrderStateMachine.editableStatuses().contains(foundOrder.getStatus()))
+            throw new OrderConflictException("Solo se pueden editar pedidos en estado CREATED");
         
         if(orderPatchRequest instanceof DeliveryOrderPatchRequest deliveryOrderPatchRequest){
 
@@ -90,147 +322,258 @@ public class OrderServiceImpl implements OrderService {
 
         // TODO: Implement Pickup Patch Request
 
-        Order updatedOrder = orderRepository.save(foundOrder);
+        // Flush inmediato: el UPDATE lleva "WHERE version = ?", así un cambio concurrente se
+        // detecta aquí (409) y la respuesta ya incluye la versión nueva
+        Order updatedOrder = orderRepository.saveAndFlush(foundOrder);
+        customerOrderCache.invalidate(updatedOrder.getCustomerId());
+        orderEventRepository.save(OrderEventMapper.orderToEvent(updatedOrder, OrderEventType.ORDER_UPDATED));
         return OrderMapper.entityToOrderResponse(updatedOrder);
 
     }
 
     @Override
     @Transactional
-    // TODO: Integrate routing logic
     public void cancelOrder(UUID id) {
-        
-        Order foundOrder = orderRepository.findById(id)
+        log.info("Cancelación local inmediata para pedido: {}", id);
+        transition(id, OrderStatus.CANCELLED, "Una orden solo puede ser cancelada si fue creada, recogida o tiene una cancelación en curso.");
+    }
+
+    @Override
+    @Transactional
+    public void transitionOrder(UUID id, OrderStatus newStatus) {
+        transition(id, newStatus, "Transición de estado no permitida hacia " + newStatus + ".");
+    }
+
+    /**
+     * Valida la transición contra OrderStateMachine y la aplica como compare-and-set sobre
+     * la versión leída: si el pedido cambió entre la lectura y el UPDATE no se pisa nada y
+     * se responde 409.
+     */
+    private void transition(UUID id, OrderStatus newStatus, String rejectionMessage) {
+
+        long start = System.nanoTime();
+        OrderStateProjection state = orderRepository.findStateById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
 
-        if (OrderStatus.CREATED.equals(foundOrder.getStatus()) || OrderStatus.PICKED_UP.equals(foundOrder.getStatus())) {
-            log.info("Cancelación local inmediata para pedido: {}", id);
-            foundOrder.setStatus(OrderStatus.CANCELLED);
-            orderRepository.save(foundOrder);
-        }else{
-            throw new IllegalStateException("Una orden solo puede ser cancelada si fue creada o si fue recogida.");
+        if (!OrderStateMachine.canTransition(state.status(), newStatus)) {
+            orderStateMachine.recordRejected(state.status(), newStatus);
+            throw new OrderConflictException(rejectionMessage + " Estado actual: " + state.status());
+        }
+
+        if (orderRepository.compareAndSetStatus(id, state.version(), newStatus, LocalDateTime.now()) == 0) {
+            orderStateMachine.recordRejected(state.status(), newStatus);
+            throw new OrderConflictException("El pedido fue modificado por otra operación. Vuelva a consultarlo e intente de nuevo.");
         }
+
+        customerOrderCache.invalidate(state.customerId());
+        orderEventRepository.save(OrderEventMapper.toEvent(id, newStatus, state.driverId(), OrderEventMapper.eventTypeFor(newStatus)));
+        orderRepository.recordStatusReached(List.of(id), newStatus);
+        orderStateMachine.recordApplied(state.status(), newStatus, System.nanoTime() - start);
     }
 
+    /**
+     * Transición en lote: agrupa los pedidos por estado de origen y aplica un UPDATE por
+     * grupo (WHERE id IN ... AND status = origen). Si un grupo actualiza menos filas de las
+     * esperadas, se relee para saber cuáles cambiaron concurrentemente.
+     */
     @Override
-    public List<OrderResponse> getOrdersByCustomer(UUID customerId) {
-        return orderRepository.findByCustomerId(customerId)
-            .stream()
-            .map(OrderMapper::entityToOrderResponse)
+    @Transactional
+    public OrderBulkStatusResponse transitionOrders(Collection<UUID> ids, OrderStatus newStatus) {
+
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Set<UUID> found = new HashSet<>();
+        List<UUID> rejectedIds = new ArrayList<>();
+        Map<OrderStatus, List<OrderStateProjection>> bySource = new EnumMap<>(OrderStatus.class);
+
+        for (OrderStateProjection state : orderRepository.findStatesByIds(requested)) {
+            found.add(state.id());
+            if (OrderStateMachine.canTransition(state.status(), newStatus)) {
+                bySource.computeIfAbsent(state.status(), status -> new ArrayList<>()).add(state);
+            } else {
+                orderStateMachine.recordRejected(state.status(), newStatus);
+                rejectedIds.add(state.id());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        OrderEventType eventType = OrderEventMapper.eventTypeFor(newStatus);
+        List<UUID> transitionedIds = new ArrayList<>();
+        List<OrderEvent> events = new ArrayList<>();
+
+        bySource.forEach((from, group) -> {
+            long start = System.nanoTime();
+            List<UUID> groupIds = group.stream().map(OrderStateProjection::id).toList();
+            Map<UUID, OrderTransitionProjection> changed = orderRepository.transitionStatusFrom(groupIds, from, newStatus, now).stream()
+                .collect(Collectors.toMap(OrderTransitionProjection::getId, row -> row));
+
+            // Lo que no cambió dejó de estar en 'from' entre la lectura y el UPDATE
+            int applied = 0;
+            for (OrderStateProjection state : group) {
+                OrderTransitionProjection row = changed.get(state.id());
+                if (row == null) {
+                    orderStateMachine.recordRejected(from, newStatus);
+                    rejectedIds.add(state.id());
+                    continue;
+                }
+                applied++;
+                transitionedIds.add(state.id());
+                customerOrderCache.invalidate(state.customerId());
+                events.add(OrderEventMapper.toEvent(state.id(), newStatus, row.getDriverId(), eventType));
+            }
+            orderStateMachine.recordApplied(from, newStatus, System.nanoTime() - start, applied);
+        });
+        orderEventRepository.saveAll(events);
+        orderRepository.recordStatusReached(transitionedIds, newStatus);
+
+        return OrderBulkStatusResponse.builder()
+            .status(newStatus)
+            .transitionedIds(transitionedIds)
+            .rejectedIds(rejectedIds)
+            .notFoundIds(requested.stream().filter(id -> !found.contains(id)).toList())
+            .build();
+    }
+
+    @Override
+    // Sin readOnly a propósito: esta página llena CustomerOrderCache, y una lectura de la réplica
+    // atrasada posterior a la invalidación quedaría en caché como vigente durante todo el TTL
+    @Transactional
+    public OrderPageResponse getOrdersByCustomer(UUID customerId, String cursor, int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+
+        OrderCursor position = OrderCursorMapper.decode(cursor);
+        List<Order> orders = position == null
+            ? orderRepository.findByCustomerIdOrderByCreatedAtDescIdDesc(customerId, Limit.of(limit + 1))
+            : orderRepository.findCustomerPageBefore(customerId, position.createdAt(), position.id(), Limit.of(limit + 1));
+
+        boolean hasNext = orders.size() > limit;
+        List<Order> page = hasNext ? orders.subList(0, limit) : orders;
+
+        return OrderPageResponse.builder()
+            .orders(toOrderResponses(page))
+            .nextCursor(hasNext ? OrderCursorMapper.encode(page.get(limit - 1)) : null)
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getArchivedOrdersByCustomer(UUID customerId, LocalDate from, LocalDate to, int limit) {
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        if (from == null || to == null || !from.isBefore(to))
+            throw new IllegalArgumentException("El rango de fechas es inválido: 'from' debe ser anterior a 'to'.");
+        // El rango acota cuántas particiones mensuales se abren
+        if (from.plusDays(MAX_ARCHIVE_RANGE_DAYS).isBefore(to))
+            throw new IllegalArgumentException("El rango de fechas no puede superar " + MAX_ARCHIVE_RANGE_DAYS + " días.");
+
+        return orderRepository.findArchivedByCustomer(customerId, from.atStartOfDay(), to.atStartOfDay(), limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyOrderResponse> findOrdersWithinRadius(double latitude, double longitude, double radiusKm,
+                                                            AddressType addressType, int limit) {
+
+        validateNearbyQuery(radiusKm, limit);
+        OrderUtils.BoundingBox box = OrderUtils.boundingBox(latitude, longitude, radiusKm);
+
+        List<OrderDistanceProjection> matches = addressType == AddressType.DELIVERY
+            ? orderRepository.findDeliveriesWithin(latitude, longitude, box.minLatitude(), box.maxLatitude(),
+                    box.minLongitude(), box.maxLongitude(), radiusKm, limit)
+            : orderRepository.findPickupsWithin(latitude, longitude, box.minLatitude(), box.maxLatitude(),
+                    box.minLongitude(), box.maxLongitude(), radiusKm, limit);
+        return toNearbyResponses(matches);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyOrderResponse> findNearestUnassignedOrders(double latitude, double longitude, double radiusKm, int limit) {
+
+        validateNearbyQuery(radiusKm, limit);
+        OrderUtils.BoundingBox box = OrderUtils.boundingBox(latitude, longitude, radiusKm);
+
+        return toNearbyResponses(orderRepository.findNearestUnassigned(latitude, longitude, box.minLatitude(),
+                box.maxLatitude(), box.minLongitude(), box.maxLongitude(), radiusKm, limit));
+    }
+
+    private static void validateNearbyQuery(double radiusKm, int limit) {
+
+        if (!(radiusKm > 0) || radiusKm > OrderUtils.MAX_COVERAGE)
+            throw new IllegalArgumentException("El radio debe estar entre 0 y " + OrderUtils.MAX_COVERAGE + " km.");
+
+        if (limit < 1 || limit > MAX_NEARBY_RESULTS)
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_NEARBY_RESULTS + ".");
+    }
+
+    // Carga los pedidos encontrados y conserva el orden por distancia de la consulta geográfica
+    private List<NearbyOrderResponse> toNearbyResponses(List<OrderDistanceProjection> matches) {
+
+        if (matches.isEmpty()) return List.of();
+
+        List<UUID> ids = matches.stream().map(OrderDistanceProjection::getId).toList();
+        Map<UUID, OrderResponse> ordersById = toOrderResponses(orderRepository.findAllById(ids)).stream()
+            .collect(Collectors.toMap(OrderResponse::getId, order -> order));
+
+        return matches.stream()
+            .filter(match -> ordersById.containsKey(match.getId()))
+            .map(match -> NearbyOrderResponse.builder()
+                .distanceKm(match.getDistanceKm())
+                .order(ordersById.get(match.getId()))
+                .build())
             .toList();
     }
 
     @Override
     @Transactional
     public OrderResponse assignDriverAndVehicle(UUID orderId, AssignDriverRequest request) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + orderId));
 
-        
-        if (OrderStatus.CANCELLED.equals(order.getStatus()))
-           throw new IllegalStateException("No se puede asignar recursos a una orden cancelada.");
-        
+        // La fila queda bloqueada: otra reasignación concurrente no puede leer el mismo conductor anterior
+        UUID previousDriverId = orderRepository.lockDriverIdById(orderId).orElse(null);
+        int updated = orderRepository.assignDriverIfStatus(orderId, OrderStateMachine.assignableStatuses(),
+                request.getDriverId(), request.getVehicleId(), LocalDateTime.now());
+        if (updated == 0) throw transitionRejected(orderId, "No se puede asignar recursos a una orden finalizada.");
 
-        order.setDriverId(request.getDriverId());
-        order.setVehicleId(request.getVehicleId());
-        
         // Nota: No cambiamos el estado automáticamente a menos que sea un requerimiento.
-        // Si quisieras que pase a "IN_ROUTE" o similar, descomenta abajo:
-        // order.setStatus(OrderStatus.IN_ROUTE); 
 
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = orderRepository.findById(orderId)
+                .orElseThrow(() -> new IllegalArgumentException("Pedido no encontrado: " + orderId));
+        customerOrderCache.invalidate(updatedOrder.getCustomerId());
+        // Reasignación: el conductor reemplazado vuelve a quedar disponible en Fleet
+        if (previousDriverId != null && !previousDriverId.equals(updatedOrder.getDriverId()))
+            orderEventRepository.save(OrderEventMapper.toEvent(orderId, updatedOrder.getStatus(), previousDriverId, OrderEventType.DRIVER_RELEASED));
+        orderEventRepository.save(OrderEventMapper.orderToEvent(updatedOrder, OrderEventType.DRIVER_ASSIGNED));
         return OrderMapper.entityToOrderResponse(updatedOrder);
     }
 
+    // Distingue, tras un UPDATE condicional sin filas afectadas, un pedido inexistente (400) de un conflicto de estado (409)
+    private RuntimeException transitionRejected(UUID id, String message) {
+        return orderRepository.findStatusById(id)
+            .<RuntimeException>map(status -> new OrderConflictException(message + " Estado actual: " + status))
+            .orElseGet(() -> new IllegalArgumentException("Pedido no encontrado: " + id));
+    }
+
     /**
      * Recalcula los valores del pedido basándose en las direcciones actuales.
-     * Valida que la distancia esté dentro de cobertura y actualiza:
+     * Valida que la distancia esté dentro de cobertura y delega en PricingEngine:
      * - Distancia
      * - Trip Fee
      * - Service Fee
+     * - Handling Fee por item (si pricing.per-kg.enabled)
      * - Total Amount
      */
-    private void calculateOrderValues(Order order, VehicleType vehicleType) {
+    private void calculateOrderValues(Order order, VehicleType vehicleType, String zoneId) {
         
         double distance = OrderUtils.calculateDistance(order.getPickupAddress(), order.getDeliveryAddress());
-        BigDecimal distanceBd = BigDecimal.valueOf(distance).setScale(2, RoundingMode.HALF_UP);
         
         if (distance > OrderUtils.MAX_COVERAGE) 
             throw new IllegalArgumentException("La distancia excede la cobertura operativa (Max 50km).");
         
-        Tariff tariff = tariffRepository.findByVehicleType(vehicleType)
+        TariffRates rates = tariffCache.find(vehicleType, zoneId)
                 .orElseThrow(() -> new IllegalArgumentException("No hay tarifa configurada para este vehículo"));
 
-        BigDecimal tripFee = OrderUtils.calculateTripFee(tariff, distanceBd);
-        BigDecimal serviceFee = tariff.getBaseCost();
-        BigDecimal totalAmount = tripFee.add(serviceFee);
-
-        order.setDistanceKm(distanceBd);
-        order.setTripFee(tripFee);
-        order.setServiceFee(serviceFee);
-        order.setTotalAmount(totalAmount);
+        pricingEngine.applyTo(order, distance, rates);
         order.setStatus(OrderStatus.CREATED);
     }
-
-    // Clase utilitaria interna (privada y final según buenas prácticas anteriores)
-    private final class OrderUtils {
-
-        private OrderUtils(){
-            throw new UnsupportedOperationException("Clase utilitaria");
-        }
-
-        private static final int EARTH_RADIUS_KM = 6371;
-        public static final int MAX_COVERAGE = 50;
-
-        public static double calculateDistance(Address addr1, Address addr2){
-
-            if (addr1 == null || addr2 == null) 
-                throw new IllegalArgumentException("Las direcciones de origen y destino no pueden ser nulas.");
-            
-            if (addr1.getCoordinates() == null || addr2.getCoordinates() == null)
-                throw new IllegalArgumentException("Las coordenadas de las direcciones no pueden ser nulas.");
-            
-            double lat1 = addr1.getCoordinates().getLatitude();
-            double lon1 = addr1.getCoordinates().getLongitude();
-            double lat2 = addr2.getCoordinates().getLatitude();
-            double lon2 = addr2.getCoordinates().getLongitude();
-
-            if (!isValidCoordinate(lat1, lon1) || !isValidCoordinate(lat2, lon2))
-                throw new IllegalArgumentException("Las coordenadas proporcionadas son inválidas.");
-
-            double dLat = Math.toRadians(lat2 - lat1);
-            double dLon = Math.toRadians(lon2 - lon1);
-
-            double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                    Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                    Math.sin(dLon / 2) * Math.sin(dLon / 2);
-
-            double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-            return EARTH_RADIUS_KM * c;
-
-        }
-
-        public static BigDecimal calculateTripFee(Tariff tariff, BigDecimal distance) {
-
-            if (tariff == null)
-                throw new IllegalArgumentException("La tarifa no puede ser nula.");
-            
-            if (distance == null)
-                throw new IllegalArgumentException("La distancia no puede ser nula.");
-            
-            if (distance.compareTo(BigDecimal.ZERO) < 0)
-                throw new IllegalArgumentException("La distancia no puede ser negativa.");
-
-            if (distance.compareTo(BigDecimal.valueOf(tariff.getMinDistanceKm())) < 0) {
-                return tariff.getBaseCost();
-            }
-            return distance.multiply(tariff.getCostPerKm());
-
-        }
-
-        private static boolean isValidCoordinate(double latitude, double longitude) {
-            return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
-        }
-    }
-}
\ No newline at end of file
+}
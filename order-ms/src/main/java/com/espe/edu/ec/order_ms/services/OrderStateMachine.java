@@ -0,0 +1,107 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Tabla de transiciones de OrderStatus. Toda mutación de un pedido consulta esta tabla:
+ *
+ *   CREATED                  -> PICKED_UP, CANCELLED
+ *   PICKED_UP                -> IN_ROUTE, CANCELLED, CANCELLED_BY_DELIVERY
+ *   IN_ROUTE                 -> DELIVERED, CANCELLATION_IN_PROGRESS, CANCELLED_BY_DELIVERY
+ *   CANCELLATION_IN_PROGRESS -> CANCELLED, IN_ROUTE
+ *   DELIVERED, CANCELLED, CANCELLED_BY_DELIVERY: finales
+ *
+ * Cada estado guarda sus destinos válidos como máscara de bits (un bit por ordinal), así
+ * la validación es O(1) y no asigna memoria. Los medidores de cada par (origen, destino)
+ * se registran al arrancar por el mismo motivo.
+ */
+@Component
+public class OrderStateMachine {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final long[] ALLOWED_TARGETS = new long[STATUSES.length];
+
+    // Solo se editan pedidos aún no recogidos; se asignan recursos mientras el pedido no haya terminado
+    private static final Set<OrderStatus> EDITABLE = Collections.unmodifiableSet(EnumSet.of(OrderStatus.CREATED));
+    private static final Set<OrderStatus> ASSIGNABLE = Collections.unmodifiableSet(EnumSet.of(
+            OrderStatus.CREATED, OrderStatus.PICKED_UP, OrderStatus.IN_ROUTE, OrderStatus.CANCELLATION_IN_PROGRESS));
+
+    static {
+        allow(OrderStatus.CREATED, OrderStatus.PICKED_UP, OrderStatus.CANCELLED);
+        allow(OrderStatus.PICKED_UP, OrderStatus.IN_ROUTE, OrderStatus.CANCELLED, OrderStatus.CANCELLED_BY_DELIVERY);
+        allow(OrderStatus.IN_ROUTE, OrderStatus.DELIVERED, OrderStatus.CANCELLATION_IN_PROGRESS, OrderStatus.CANCELLED_BY_DELIVERY);
+        allow(OrderStatus.CANCELLATION_IN_PROGRESS, OrderStatus.CANCELLED, OrderStatus.IN_ROUTE);
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        for (OrderStatus to : targets) {
+            ALLOWED_TARGETS[from.ordinal()] |= 1L << to.ordinal();
+        }
+    }
+
+    private final Timer[][] appliedTimers = new Timer[STATUSES.length][STATUSES.length];
+    private final Counter[][] rejectedCounters = new Counter[STATUSES.length][STATUSES.length];
+
+    public OrderStateMachine(MeterRegistry meterRegistry) {
+        for (OrderStatus from : STATUSES) {
+            for (OrderStatus to : STATUSES) {
+                if (canTransition(from, to)) {
+                    appliedTimers[from.ordinal()][to.ordinal()] = Timer.builder("orders.status.transitions")
+                        .description("Transiciones de estado aplicadas y su latencia")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry);
+                }
+                rejectedCounters[from.ordinal()][to.ordinal()] = Counter.builder("orders.status.transitions.rejected")
+                    .description("Transiciones rechazadas por la tabla o por un cambio concurrente")
+                    .tag("from", from.name())
+                    .tag("to", to.name())
+                    .register(meterRegistry);
+            }
+        }
+    }
+
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return (ALLOWED_TARGETS[from.ordinal()] & (1L << to.ordinal())) != 0;
+    }
+
+    public static Set<OrderStatus> editableStatuses() {
+        return EDITABLE;
+    }
+
+    public static Set<OrderStatus> assignableStatuses() {
+        return ASSIGNABLE;
+    }
+
+    public static boolean isFinal(OrderStatus status) {
+        return ALLOWED_TARGETS[status.ordinal()] == 0;
+    }
+
+    public void recordApplied(OrderStatus from, OrderStatus to, long elapsedNanos) {
+        appliedTimers[from.ordinal()][to.ordinal()].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordApplied(OrderStatus from, OrderStatus to, long elapsedNanos, int count) {
+        Timer timer = appliedTimers[from.ordinal()][to.ordinal()];
+        // El lote se ejecuta en un solo UPDATE; se reparte la latencia entre sus pedidos
+        long perOrder = elapsedNanos / Math.max(1, count);
+        for (int i = 0; i < count; i++) {
+            timer.record(perOrder, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordRejected(OrderStatus from, OrderStatus to) {
+        rejectedCounters[from.ordinal()][to.ordinal()].increment();
+    }
+}
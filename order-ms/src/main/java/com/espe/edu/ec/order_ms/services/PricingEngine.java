@@ -0,0 +1,103 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.dtos.PriceQuote;
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.models.OrderItem;
+
+/**
+ * Cálculo de precios en punto fijo (long). Reproduce exactamente el cálculo previo
+ * con BigDecimal:
+ *
+ *   distancia = BigDecimal.valueOf(km).setScale(2, HALF_UP)
+ *   tripFee   = distancia < minDistanceKm ? baseCost : distancia * costPerKm
+ *   total     = tripFee + baseCost
+ *
+ * Opcionalmente (pricing.per-kg.enabled) agrega a cada item un handlingFee de
+ * peso * cantidad * costPerKg, que se suma al total.
+ */
+@Component
+public class PricingEngine {
+
+    // Lejos de .5 el redondeo binario coincide con el decimal; cerca se usa BigDecimal
+    private static final double HALF_TIE_TOLERANCE = 1e-6;
+    private static final double MAX_FAST_SCALED = 1e9;
+
+    private final boolean perKgEnabled;
+
+    public PricingEngine(@Value("${pricing.per-kg.enabled:false}") boolean perKgEnabled) {
+        this.perKgEnabled = perKgEnabled;
+    }
+
+    public PriceQuote quote(double distanceKm, TariffRates rates) {
+        return quote(distanceKm, rates, 0L);
+    }
+
+    /**
+     * Tarifa el pedido y materializa los montos como BigDecimal en la entidad.
+     */
+    public void applyTo(Order order, double distanceKm, TariffRates rates) {
+
+        long handlingFeeMicros = 0L;
+        if (perKgEnabled && rates.costPerKgE4() > 0) {
+            for (OrderItem item : order.getItems()) {
+                long itemFeeMicros = handlingFeeMicros(item, rates);
+                item.setHandlingFee(BigDecimal.valueOf(itemFeeMicros, PriceQuote.MONEY_SCALE));
+                handlingFeeMicros += itemFeeMicros;
+            }
+        }
+
+        PriceQuote quote = quote(distanceKm, rates, handlingFeeMicros);
+        order.setDistanceKm(quote.toDistanceKm());
+        order.setTripFee(quote.toTripFee());
+        order.setServiceFee(quote.toServiceFee());
+        order.setTotalAmount(quote.toTotalAmount());
+    }
+
+    private PriceQuote quote(double distanceKm, TariffRates rates, long handlingFeeMicros) {
+
+        if (rates == null) throw new IllegalArgumentException("La tarifa no puede ser nula.");
+        if (!(distanceKm >= 0)) throw new IllegalArgumentException("La distancia no puede ser negativa.");
+
+        long distanceCentiKm = toCentiHalfUp(distanceKm);
+
+        // centésimas de km * diezmilésimas por km = millonésimas
+        long tripFeeMicros = distanceCentiKm < rates.minDistanceKm() * 100L
+            ? rates.baseCostMicros()
+            : Math.multiplyExact(distanceCentiKm, rates.costPerKmE4());
+        long serviceFeeMicros = rates.baseCostMicros();
+        long totalMicros = Math.addExact(Math.addExact(tripFeeMicros, serviceFeeMicros), handlingFeeMicros);
+
+        return new PriceQuote(distanceCentiKm, tripFeeMicros, serviceFeeMicros, handlingFeeMicros, totalMicros);
+    }
+
+    private static long handlingFeeMicros(OrderItem item, TariffRates rates) {
+
+        if (item.getWeightKg() == null || item.getQuantity() == null) return 0L;
+
+        // Mismo redondeo que aplica la columna weight_kg (escala 2) al persistir
+        long weightCentiKg = item.getWeightKg().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        return Math.multiplyExact(Math.multiplyExact(weightCentiKg, item.getQuantity().longValue()), rates.costPerKgE4());
+    }
+
+    /**
+     * Equivale a BigDecimal.valueOf(value).setScale(2, HALF_UP) para valores no negativos.
+     */
+    static long toCentiHalfUp(double value) {
+
+        double scaled = value * 100;
+        if (scaled < MAX_FAST_SCALED) {
+            double floor = Math.floor(scaled);
+            double fraction = scaled - floor;
+            if (Math.abs(fraction - 0.5) > HALF_TIE_TOLERANCE)
+                return (long) floor + (fraction > 0.5 ? 1 : 0);
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,123 @@
+package com.espe.edu.ec.order_ms.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.mappers.TariffMapper;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Tariff;
+import com.espe.edu.ec.order_ms.repositories.TariffRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caché read-through de la tabla de tarifas. Mantiene una instantánea inmutable,
+ * ya convertida a punto fijo (TariffRates) y agrupada por tipo de vehículo, que se
+ * recarga completa cuando vence el TTL o cuando se invalida por una escritura
+ * (ver models.TariffChangeListener, que invalida después del commit).
+ */
+@Component
+@Slf4j
+public class TariffCache {
+
+    private final TariffRepository tariffRepository;
+    private final Duration ttl;
+    private final Counter hits;
+    private final Counter misses;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public TariffCache(TariffRepository tariffRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${tariffs.cache.ttl:5m}") Duration ttl) {
+        this.tariffRepository = tariffRepository;
+        this.ttl = ttl;
+        this.hits = Counter.builder("tariff.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("tariff.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Busca la tarifa del tipo de vehículo en la zona indicada. Si no se envía zona
+     * se usa la tarifa de menor ID del tipo de vehículo (comportamiento previo).
+     */
+    public Optional<TariffRates> find(VehicleType vehicleType, String zoneId) {
+
+        Snapshot current = snapshot;
+        if (current.isFresh(ttl)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            current = reload(current);
+        }
+        return Optional.ofNullable(current.lookup(vehicleType, zoneId));
+    }
+
+    public void invalidate() {
+
+        // Espera a una recarga en curso: pudo leer antes del commit y publicaría datos viejos
+        reloadLock.lock();
+        try {
+            snapshot = Snapshot.EMPTY;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot reload(Snapshot stale) {
+
+        reloadLock.lock();
+        try {
+            // Otro hilo pudo haber recargado mientras esperábamos el lock
+            if (snapshot != stale && snapshot.isFresh(ttl)) return snapshot;
+
+            Snapshot loaded = Snapshot.of(tariffRepository.findAll());
+            snapshot = loaded;
+            log.debug("Caché de tarifas recargada");
+            return loaded;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private record Snapshot(Map<VehicleType, List<TariffRates>> byVehicleType, Instant loadedAt) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Instant.MIN);
+
+        static Snapshot of(List<Tariff> tariffs) {
+            Map<VehicleType, List<TariffRates>> grouped = new EnumMap<>(VehicleType.class);
+            tariffs.stream()
+                .sorted(Comparator.comparing(Tariff::getId))
+                .map(TariffMapper::entityToRates)
+                .forEach(rates -> grouped.computeIfAbsent(rates.vehicleType(), type -> new ArrayList<>()).add(rates));
+            grouped.replaceAll((type, list) -> List.copyOf(list));
+            return new Snapshot(grouped, Instant.now());
+        }
+
+        boolean isFresh(Duration ttl) {
+            return loadedAt.plus(ttl).isAfter(Instant.now());
+        }
+
+        TariffRates lookup(VehicleType vehicleType, String zoneId) {
+            List<TariffRates> candidates = byVehicleType.getOrDefault(vehicleType, List.of());
+            if (zoneId == null) return candidates.isEmpty() ? null : candidates.get(0);
+            for (TariffRates rates : candidates) {
+                if (zoneId.equals(rates.zoneId())) return rates;
+            }
+            return null;
+        }
+    }
+}
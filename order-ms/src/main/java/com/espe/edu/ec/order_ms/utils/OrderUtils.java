@@ -0,0 +1,103 @@
+package com.espe.edu.ec.order_ms.utils;
+
+import java.math.BigDecimal;
+
+import com.espe.edu.ec.order_ms.models.Address;
+import com.espe.edu.ec.order_ms.models.Tariff;
+
+// Cálculos de distancia y tarifa compartidos por el servicio de pedidos y los benchmarks
+public final class OrderUtils {
+
+    private OrderUtils(){
+        throw new UnsupportedOperationException("Clase utilitaria");
+    }
+
+    private static final int EARTH_RADIUS_KM = 6371;
+    private static final double KM_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_KM / 180;
+    public static final int MAX_COVERAGE = 50;
+
+    public static double calculateDistance(Address addr1, Address addr2){
+
+        if (addr1 == null || addr2 == null) 
+            throw new IllegalArgumentException("Las direcciones de origen y destino no pueden ser nulas.");
+        
+        if (!hasCoordinates(addr1) || !hasCoordinates(addr2))
+            throw new IllegalArgumentException("Las coordenadas de las direcciones no pueden ser nulas.");
+        
+        double lat1 = addr1.getCoordinates().getLatitude();
+        double lon1 = addr1.getCoordinates().getLongitude();
+        double lat2 = addr2.getCoordinates().getLatitude();
+        double lon2 = addr2.getCoordinates().getLongitude();
+
+        if (!isValidCoordinate(lat1, lon1) || !isValidCoordinate(lat2, lon2))
+            throw new IllegalArgumentException("Las coordenadas proporcionadas son inválidas.");
+
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+
+    }
+
+    public static BigDecimal calculateTripFee(Tariff tariff, BigDecimal distance) {
+
+        if (tariff == null)
+            throw new IllegalArgumentException("La tarifa no puede ser nula.");
+        
+        if (distance == null)
+            throw new IllegalArgumentException("La distancia no puede ser nula.");
+        
+        if (distance.compareTo(BigDecimal.ZERO) < 0)
+            throw new IllegalArgumentException("La distancia no puede ser negativa.");
+
+        if (distance.compareTo(BigDecimal.valueOf(tariff.getMinDistanceKm())) < 0) {
+            return tariff.getBaseCost();
+        }
+        return distance.multiply(tariff.getCostPerKm());
+
+    }
+
+    /**
+     * Recuadro lat/lon que contiene el círculo de radio radiusKm alrededor del punto.
+     * Sirve de prefiltro indexable antes de la distancia exacta. No cruza el antimeridiano
+     * (la longitud se recorta a [-180, 180]), suficiente para la cobertura operativa.
+     */
+    public static BoundingBox boundingBox(double latitude, double longitude, double radiusKm) {
+
+        if (!isValidCoordinate(latitude, longitude))
+            throw new IllegalArgumentException("Las coordenadas proporcionadas son inválidas.");
+
+        if (!(radiusKm > 0))
+            throw new IllegalArgumentException("El radio debe ser mayor a cero.");
+
+        double deltaLat = radiusKm / KM_PER_DEGREE_LAT;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        // Cerca de los polos el recuadro abarca todas las longitudes
+        double deltaLon = cosLat < 1e-9 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE_LAT * cosLat));
+
+        return new BoundingBox(
+            Math.max(-90, latitude - deltaLat),
+            Math.min(90, latitude + deltaLat),
+            Math.max(-180, longitude - deltaLon),
+            Math.min(180, longitude + deltaLon));
+    }
+
+    public record BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+    }
+
+    private static boolean hasCoordinates(Address address) {
+        return address.getCoordinates() != null
+                && address.getCoordinates().getLatitude() != null
+                && address.getCoordinates().getLongitude() != null;
+    }
+
+    private static boolean isValidCoordinate(double latitude, double longitude) {
+        return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+    }
+}
@@ -0,0 +1,52 @@
+-- Archivo de pedidos en estado final más antiguos que orders.archive.retention (ver OrderArchiveJob).
+-- El pedido completo (items incluidos) se guarda como un único documento jsonb con la forma de
+-- OrderResponse; solo se extraen a columnas los campos por los que se filtra.
+-- Particionado por mes de created_at: las consultas con rango de fechas solo abren esas particiones.
+CREATE TABLE IF NOT EXISTS orders_archive (
+    id           uuid          NOT NULL,
+    customer_id  uuid          NOT NULL,
+    status       varchar(32)   NOT NULL,
+    vehicle_type varchar(32),
+    total_amount numeric(19,2),
+    created_at   timestamp(6)  NOT NULL,
+    archived_at  timestamp(6)  NOT NULL DEFAULT now(),
+    document     jsonb         NOT NULL,
+    -- La clave de partición debe formar parte de la clave primaria
+    PRIMARY KEY (created_at, id)
+) PARTITION BY RANGE (created_at);
+
+-- lz4 comprime y descomprime más rápido que pglz los documentos que pasan a TOAST; si el
+-- servidor no se compiló con lz4 se queda con pglz
+DO $$
+BEGIN
+    ALTER TABLE orders_archive ALTER COLUMN document SET COMPRESSION lz4;
+EXCEPTION WHEN feature_not_supported THEN
+    RAISE NOTICE 'PostgreSQL sin soporte lz4: orders_archive usa pglz';
+END;
+$$;
+
+-- Búsqueda por ID sin fecha (GET /orders/{id}, verificación de existencia): un índice por partición
+CREATE INDEX IF NOT EXISTS idx_orders_archive_id ON orders_archive (id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_customer_created_at_id ON orders_archive (customer_id, created_at, id);
+
+-- Crea las particiones mensuales que falten entre dos fechas. El advisory lock evita que dos
+-- instancias creen la misma partición a la vez.
+CREATE OR REPLACE FUNCTION create_orders_archive_partitions(from_ts timestamp, to_ts timestamp)
+RETURNS void
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start date := date_trunc('month', from_ts);
+    partition_name text;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('orders_archive_partitions'));
+    WHILE month_start <= to_ts LOOP
+        partition_name := format('orders_archive_%s', to_char(month_start, 'YYYY_MM'));
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF orders_archive FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, (month_start + interval '1 month')::date);
+        END IF;
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END;
+$$;
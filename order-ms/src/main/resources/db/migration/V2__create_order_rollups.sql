@@ -0,0 +1,27 @@
+-- Totales diarios de pedidos por tipo de vehículo (fecha de creación del pedido).
+-- Las transacciones de pedidos solo insertan deltas, sin disputarse la fila del día;
+-- OrderRollupJob los suma periódicamente en order_daily_rollups. Las consultas leen
+-- ambas tablas, así los deltas aún no consolidados también cuentan.
+CREATE TABLE IF NOT EXISTS order_rollup_deltas (
+    id                bigserial     PRIMARY KEY,
+    bucket_date       date          NOT NULL,
+    vehicle_type      varchar(32)   NOT NULL, -- 'UNSPECIFIED' para pedidos sin tipo de vehículo
+    orders            bigint        NOT NULL DEFAULT 0,
+    revenue           numeric(19,2) NOT NULL DEFAULT 0,
+    cancelled_orders  bigint        NOT NULL DEFAULT 0,
+    cancelled_revenue numeric(19,2) NOT NULL DEFAULT 0,
+    delivered_orders  bigint        NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_rollup_deltas_bucket_date ON order_rollup_deltas (bucket_date);
+
+CREATE TABLE IF NOT EXISTS order_daily_rollups (
+    bucket_date       date          NOT NULL,
+    vehicle_type      varchar(32)   NOT NULL,
+    orders            bigint        NOT NULL DEFAULT 0,
+    revenue           numeric(19,2) NOT NULL DEFAULT 0,
+    cancelled_orders  bigint        NOT NULL DEFAULT 0,
+    cancelled_revenue numeric(19,2) NOT NULL DEFAULT 0,
+    delivered_orders  bigint        NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_date, vehicle_type)
+);
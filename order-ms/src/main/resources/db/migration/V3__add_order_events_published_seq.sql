@@ -0,0 +1,15 @@
+-- Posición de publicación de order_events (ver OrderEventPublishJob). La columna la crea
+-- Hibernate en bases nuevas; en las existentes se agrega aquí y los eventos previos
+-- conservan su ID como posición, así el cursor que ya guardó Billing sigue siendo válido.
+CREATE SEQUENCE IF NOT EXISTS order_events_published_seq;
+
+DO $$
+BEGIN
+    IF to_regclass('order_events') IS NOT NULL THEN
+        ALTER TABLE order_events ADD COLUMN IF NOT EXISTS published_seq bigint;
+        UPDATE order_events SET published_seq = id WHERE published_seq IS NULL;
+        CREATE UNIQUE INDEX IF NOT EXISTS idx_order_events_published_seq ON order_events (published_seq);
+        PERFORM setval('order_events_published_seq', GREATEST((SELECT max(id) FROM order_events), 1));
+    END IF;
+END;
+$$;
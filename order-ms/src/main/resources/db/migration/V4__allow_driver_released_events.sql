@@ -0,0 +1,11 @@
+-- DRIVER_RELEASED (conductor reemplazado en una reasignación). Hibernate genera el CHECK del
+-- enum al crear la tabla, pero ddl-auto update no lo modifica en bases existentes.
+DO $$
+BEGIN
+    IF to_regclass('order_events') IS NOT NULL THEN
+        ALTER TABLE order_events DROP CONSTRAINT IF EXISTS order_events_event_type_check;
+        ALTER TABLE order_events ADD CONSTRAINT order_events_event_type_check CHECK (event_type IN
+            ('ORDER_CREATED', 'ORDER_UPDATED', 'ORDER_CANCELLED', 'DRIVER_ASSIGNED', 'DRIVER_RELEASED', 'STATUS_CHANGED'));
+    END IF;
+END;
+$$;
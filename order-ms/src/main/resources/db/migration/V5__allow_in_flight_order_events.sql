@@ -0,0 +1,11 @@
+-- IN_FLIGHT (evento reclamado por una instancia del relay). Igual que en V4, el CHECK del
+-- enum que generó Hibernate no se actualiza en bases existentes.
+DO $$
+BEGIN
+    IF to_regclass('order_events') IS NOT NULL THEN
+        ALTER TABLE order_events DROP CONSTRAINT IF EXISTS order_events_delivery_status_check;
+        ALTER TABLE order_events ADD CONSTRAINT order_events_delivery_status_check CHECK (delivery_status IN
+            ('PENDING', 'IN_FLIGHT', 'PUBLISHED', 'NOT_REQUIRED', 'FAILED'));
+    END IF;
+END;
+$$;
@@ -0,0 +1,97 @@
+package com.espe.edu.ec.order_ms.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingJwtDecoderTests {
+
+	private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+	private final AtomicInteger verifications = new AtomicInteger();
+	private final MutableClock clock = new MutableClock();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final JwtDecoder delegate = token -> {
+		verifications.incrementAndGet();
+		if (token.startsWith("bad")) throw new BadJwtException("firma inválida");
+		Jwt.Builder jwt = Jwt.withTokenValue(token).header("alg", "ES256").subject("user").issuedAt(NOW);
+		return token.startsWith("no-exp") ? jwt.build() : jwt.expiresAt(NOW.plusSeconds(60)).build();
+	};
+
+	@Test
+	void verifiesEachTokenOnceUntilItExpires() {
+		CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, registry, clock);
+
+		Jwt first = decoder.decode("token-a");
+		assertSame(first, decoder.decode("token-a"));
+		assertEquals(1, verifications.get());
+
+		clock.instant = NOW.plusSeconds(60);
+		decoder.decode("token-a");
+		assertEquals(2, verifications.get());
+
+		assertEquals(1.0, registry.get("security.jwt.cache.requests").tag("result", "hit").counter().count());
+		assertEquals(2.0, registry.get("security.jwt.cache.requests").tag("result", "miss").counter().count());
+	}
+
+	@Test
+	void doesNotCacheInvalidOrNonExpiringTokens() {
+		CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 10, registry, clock);
+
+		assertThrows(BadJwtException.class, () -> decoder.decode("bad-token"));
+		assertThrows(BadJwtException.class, () -> decoder.decode("bad-token"));
+		decoder.decode("no-exp-token");
+		decoder.decode("no-exp-token");
+
+		assertEquals(4, verifications.get());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedToken() {
+		CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 2, registry, clock);
+
+		decoder.decode("token-a");
+		decoder.decode("token-b");
+		decoder.decode("token-a");
+		decoder.decode("token-c");
+		decoder.decode("token-a");
+		decoder.decode("token-b");
+
+		assertEquals(4, verifications.get());
+		assertEquals(2.0, registry.get("security.jwt.cache.size").gauge().value());
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant instant = NOW;
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.espe.edu.ec.order_ms.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaFallbackDataSourceTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replica = mock(DataSource.class);
+	private final Connection primaryConnection = mock(Connection.class);
+	private final Connection replicaConnection = mock(Connection.class);
+
+	private final ReplicaLagMonitor monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5), registry);
+	private final ReplicaFallbackDataSource dataSource = new ReplicaFallbackDataSource(primary, replica, monitor, registry);
+
+	@Test
+	void usesReplicaWhileLagIsWithinLimit() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		Connection lagConnection = lagConnection(1.5);
+		when(replica.getConnection()).thenReturn(lagConnection, replicaConnection);
+
+		monitor.check();
+
+		assertTrue(monitor.isAvailable());
+		assertSame(replicaConnection, dataSource.getConnection());
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenReplicaLags() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		Connection lagConnection = lagConnection(30);
+		when(replica.getConnection()).thenReturn(lagConnection, replicaConnection);
+
+		monitor.check();
+
+		assertFalse(monitor.isAvailable());
+		assertSame(primaryConnection, dataSource.getConnection());
+	}
+
+	@Test
+	void fallsBackToPrimaryWhenReplicaRefusesConnections() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		Connection lagConnection = lagConnection(0);
+		when(replica.getConnection()).thenReturn(lagConnection).thenThrow(new SQLException("réplica caída"));
+
+		monitor.check();
+
+		assertSame(primaryConnection, dataSource.getConnection());
+		assertFalse(monitor.isAvailable());
+	}
+
+	@Test
+	void passesCredentialsToReplicaAndThenToPrimary() throws SQLException {
+		Connection lagConnection = lagConnection(0);
+		when(replica.getConnection()).thenReturn(lagConnection);
+		when(replica.getConnection("lector", "secreto")).thenReturn(replicaConnection).thenThrow(new SQLException("réplica caída"));
+		when(primary.getConnection("lector", "secreto")).thenReturn(primaryConnection);
+
+		monitor.check();
+
+		assertSame(replicaConnection, dataSource.getConnection("lector", "secreto"));
+		assertSame(primaryConnection, dataSource.getConnection("lector", "secreto"));
+		assertFalse(monitor.isAvailable());
+	}
+
+	private static Connection lagConnection(double lagSeconds) throws SQLException {
+		Connection connection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		ResultSet result = mock(ResultSet.class);
+		when(connection.createStatement()).thenReturn(statement);
+		when(statement.executeQuery(anyString())).thenReturn(result);
+		when(result.next()).thenReturn(true);
+		when(result.getDouble(1)).thenReturn(lagSeconds);
+		return connection;
+	}
+}
@@ -0,0 +1,110 @@
+package com.espe.edu.ec.order_ms.event_producers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.espe.edu.ec.order_ms.dtos.DriverStatusRequest;
+import com.espe.edu.ec.order_ms.model_enums.DeliveryStatus;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+import com.espe.edu.ec.order_ms.repositories.OrderEventRepository;
+import com.espe.edu.ec.order_ms.services.OrderEventService;
+
+class OrderEventRelayTests {
+
+	private static final Duration LEASE = Duration.ofMinutes(2);
+
+	private final OrderEventRepository orderEventRepository = mock(OrderEventRepository.class);
+	private final OrderEventService orderEventService = mock(OrderEventService.class);
+	private final DriverEventProducer driverEventProducer = mock(DriverEventProducer.class);
+	private final OrderEventRelay relay = new OrderEventRelay(orderEventRepository, orderEventService, driverEventProducer, 10, 2, 3, LEASE, false);
+
+	private final UUID orderId = UUID.randomUUID();
+	private final UUID firstDriver = UUID.randomUUID();
+	private final UUID secondDriver = UUID.randomUUID();
+
+	@AfterEach
+	void shutdown() {
+		relay.shutdown();
+	}
+
+	@Test
+	void deliversEachOrderInPublicationOrder() {
+		OrderEvent assigned = claimed(1L, OrderEventType.DRIVER_ASSIGNED, firstDriver);
+		OrderEvent released = claimed(2L, OrderEventType.DRIVER_RELEASED, firstDriver);
+		when(orderEventService.claimForDelivery(anyInt(), eq(LEASE))).thenReturn(List.of(released, assigned));
+
+		relay.relay();
+
+		InOrder order = inOrder(driverEventProducer);
+		order.verify(driverEventProducer).updateStatus(firstDriver, new DriverStatusRequest("BUSY"));
+		order.verify(driverEventProducer).updateStatus(firstDriver, new DriverStatusRequest("AVAILABLE"));
+		assertEquals(DeliveryStatus.PUBLISHED, assigned.getDeliveryStatus());
+		assertEquals(DeliveryStatus.PUBLISHED, released.getDeliveryStatus());
+		assertNull(released.getNextAttemptAt());
+		verify(orderEventRepository).saveAll(any());
+	}
+
+	@Test
+	void retriesTheFailedEventAndReleasesTheOnesBehindIt() {
+		OrderEvent released = claimed(1L, OrderEventType.DRIVER_RELEASED, firstDriver);
+		OrderEvent assigned = claimed(2L, OrderEventType.DRIVER_ASSIGNED, secondDriver);
+		when(orderEventService.claimForDelivery(anyInt(), eq(LEASE))).thenReturn(List.of(released, assigned));
+		doThrow(new IllegalStateException("fleet caído")).when(driverEventProducer).updateStatus(eq(firstDriver), any());
+
+		relay.relay();
+
+		assertEquals(DeliveryStatus.PENDING, released.getDeliveryStatus());
+		assertEquals(1, released.getDeliveryAttempts());
+		assertNotNull(released.getNextAttemptAt());
+		assertEquals(DeliveryStatus.PENDING, assigned.getDeliveryStatus());
+		assertNull(assigned.getNextAttemptAt());
+		verify(driverEventProducer, never()).updateStatus(eq(secondDriver), any());
+	}
+
+	@Test
+	void marksTheEventFailedAfterTheLastAttempt() {
+		OrderEvent event = claimed(1L, OrderEventType.ORDER_CANCELLED, firstDriver);
+		event.setDeliveryAttempts(2);
+		when(orderEventService.claimForDelivery(anyInt(), eq(LEASE))).thenReturn(List.of(event));
+		doThrow(new IllegalStateException("fleet caído")).when(driverEventProducer).updateStatus(eq(firstDriver), any());
+
+		relay.relay();
+
+		assertEquals(DeliveryStatus.FAILED, event.getDeliveryStatus());
+		assertEquals(3, event.getDeliveryAttempts());
+	}
+
+	private OrderEvent claimed(long publishedSeq, OrderEventType eventType, UUID driverId) {
+		return OrderEvent.builder()
+			.id(100 - publishedSeq)
+			.orderId(orderId)
+			.eventType(eventType)
+			.orderStatus(OrderStatus.CREATED)
+			.driverId(driverId)
+			.deliveryStatus(DeliveryStatus.IN_FLIGHT)
+			.nextAttemptAt(LocalDateTime.now().plus(LEASE))
+			.publishedSeq(publishedSeq)
+			.build();
+	}
+}
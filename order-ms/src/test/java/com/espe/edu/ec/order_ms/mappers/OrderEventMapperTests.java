@@ -0,0 +1,36 @@
+package com.espe.edu.ec.order_ms.mappers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.espe.edu.ec.order_ms.model_enums.DeliveryStatus;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+class OrderEventMapperTests {
+
+	private final UUID orderId = UUID.randomUUID();
+	private final UUID driverId = UUID.randomUUID();
+
+	@Test
+	void driverChangesAreDeliveredToFleet() {
+		assertEquals(DeliveryStatus.PENDING, deliveryStatus(OrderEventType.DRIVER_ASSIGNED, OrderStatus.CREATED, driverId));
+		assertEquals(DeliveryStatus.PENDING, deliveryStatus(OrderEventType.DRIVER_RELEASED, OrderStatus.PICKED_UP, driverId));
+		assertEquals(DeliveryStatus.PENDING, deliveryStatus(OrderEventType.ORDER_CANCELLED, OrderStatus.CANCELLED, driverId));
+		assertEquals(DeliveryStatus.PENDING, deliveryStatus(OrderEventType.STATUS_CHANGED, OrderStatus.DELIVERED, driverId));
+	}
+
+	@Test
+	void eventsWithoutDriverOrDriverChangeStayLocal() {
+		assertEquals(DeliveryStatus.NOT_REQUIRED, deliveryStatus(OrderEventType.DRIVER_RELEASED, OrderStatus.CREATED, null));
+		assertEquals(DeliveryStatus.NOT_REQUIRED, deliveryStatus(OrderEventType.STATUS_CHANGED, OrderStatus.IN_ROUTE, driverId));
+		assertEquals(DeliveryStatus.NOT_REQUIRED, deliveryStatus(OrderEventType.ORDER_UPDATED, OrderStatus.CREATED, driverId));
+	}
+
+	private DeliveryStatus deliveryStatus(OrderEventType eventType, OrderStatus orderStatus, UUID driver) {
+		return OrderEventMapper.toEvent(orderId, orderStatus, driver, eventType).getDeliveryStatus();
+	}
+}
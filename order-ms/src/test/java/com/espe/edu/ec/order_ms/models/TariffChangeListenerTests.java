@@ -0,0 +1,83 @@
+package com.espe.edu.ec.order_ms.models;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.repositories.TariffRepository;
+import com.espe.edu.ec.order_ms.services.TariffCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TariffChangeListenerTests {
+
+	private final TariffRepository tariffRepository = mock(TariffRepository.class);
+	private final TariffCache cache = new TariffCache(tariffRepository, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+	private final TariffChangeListener listener = new TariffChangeListener(
+		new StaticListableBeanFactory(Map.of("tariffCache", cache)).getBeanProvider(TariffCache.class));
+
+	@BeforeEach
+	void warmCache() {
+		when(tariffRepository.findAll()).thenReturn(List.of());
+		cache.find(VehicleType.MOTORCYCLE, null);
+	}
+
+	@AfterEach
+	void clearTransaction() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	void invalidatesOnlyAfterCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+		listener.onTariffChange(new Tariff());
+
+		// Antes del commit se sigue sirviendo la instantánea cargada
+		cache.find(VehicleType.MOTORCYCLE, null);
+		verify(tariffRepository, times(1)).findAll();
+
+		end(TransactionSynchronization.STATUS_COMMITTED);
+		cache.find(VehicleType.MOTORCYCLE, null);
+		verify(tariffRepository, times(2)).findAll();
+	}
+
+	@Test
+	void keepsTheCacheWhenTheTransactionRollsBack() {
+		TransactionSynchronizationManager.initSynchronization();
+		listener.onTariffChange(new Tariff());
+		end(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		cache.find(VehicleType.MOTORCYCLE, null);
+		verify(tariffRepository, times(1)).findAll();
+	}
+
+	@Test
+	void invalidatesImmediatelyWithoutTransaction() {
+		listener.onTariffChange(new Tariff());
+
+		cache.find(VehicleType.MOTORCYCLE, null);
+		verify(tariffRepository, times(2)).findAll();
+	}
+
+	private static void end(int status) {
+		var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) synchronization.afterCommit();
+			synchronization.afterCompletion(status);
+		}
+	}
+}
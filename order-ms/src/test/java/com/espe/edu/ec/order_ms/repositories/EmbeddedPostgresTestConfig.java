@@ -0,0 +1,37 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import java.io.IOException;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * PostgreSQL embebido para los @DataJpaTest que prueban SQL nativo (particiones, CTEs,
+ * ON CONFLICT). Flyway crea las tablas fuera del modelo JPA y Hibernate las entidades,
+ * igual que al arrancar el servicio.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class EmbeddedPostgresTestConfig {
+
+	@Bean(destroyMethod = "close")
+	EmbeddedPostgres embeddedPostgres() throws IOException {
+		return EmbeddedPostgres.start();
+	}
+
+	@Bean
+	DataSource dataSource(EmbeddedPostgres embeddedPostgres) {
+		return embeddedPostgres.getPostgresDatabase();
+	}
+
+	// OrderArchiveRepositoryImpl lee el documento archivado con Jackson
+	@Bean
+	ObjectMapper objectMapper() {
+		return JsonMapper.builder().build();
+	}
+}
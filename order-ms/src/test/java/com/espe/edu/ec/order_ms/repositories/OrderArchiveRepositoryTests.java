@@ -0,0 +1,159 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.espe.edu.ec.order_ms.dtos.OrderResponse;
+import com.espe.edu.ec.order_ms.dtos.OrderRollupResponse;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.models.OrderItem;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EmbeddedPostgresTestConfig.class)
+class OrderArchiveRepositoryTests {
+
+	private static final Set<OrderStatus> FINAL_STATUSES = Set.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+	private static final LocalDate OLD_DAY = LocalDate.now().minusYears(2);
+	private static final LocalDateTime CUTOFF = LocalDateTime.now().minusYears(1);
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private UUID customerId;
+	private Order delivered;
+	private Order cancelled;
+	private Order inProgress;
+	private Order recent;
+
+	@BeforeEach
+	void createOrders() {
+		customerId = UUID.randomUUID();
+		delivered = save(OrderStatus.DELIVERED, "20.00", 2);
+		cancelled = save(OrderStatus.CANCELLED, "10.00", 0);
+		inProgress = save(OrderStatus.IN_ROUTE, "7.00", 0);
+		recent = save(OrderStatus.DELIVERED, "5.00", 0);
+		orderRepository.flush();
+
+		setCreatedAt(delivered, OLD_DAY.atTime(9, 0));
+		setCreatedAt(cancelled, OLD_DAY.atTime(10, 0));
+		setCreatedAt(inProgress, OLD_DAY.atTime(11, 0));
+		entityManager.clear();
+	}
+
+	@Test
+	void movesOnlyOldFinalOrdersWithTheirItems() {
+		assertEquals(OLD_DAY.atTime(9, 0), orderRepository.findOldestArchivable(FINAL_STATUSES, CUTOFF).orElseThrow());
+
+		assertEquals(2, archiveAll(1));
+
+		assertEquals(Set.of(inProgress.getId(), recent.getId()), Set.copyOf(orderRepository.findAllById(allIds()).stream().map(Order::getId).toList()));
+		assertEquals(0L, count("SELECT count(*) FROM order_items WHERE order_id = '" + delivered.getId() + "'"));
+		assertTrue(orderRepository.findOldestArchivable(FINAL_STATUSES, CUTOFF).isEmpty());
+	}
+
+	@Test
+	void archivedDocumentMatchesTheOrderResponse() {
+		archiveAll(10);
+
+		OrderResponse archived = orderRepository.findArchivedById(delivered.getId()).orElseThrow();
+		assertEquals(customerId, archived.getCustomerId());
+		assertEquals(OrderStatus.DELIVERED, archived.getStatus());
+		assertEquals(VehicleType.MOTORCYCLE, archived.getVehicleType());
+		assertEquals(20.0, archived.getTotalAmount());
+		assertEquals(OLD_DAY.atTime(9, 0), archived.getOrderDate());
+		assertEquals("Quito", archived.getDeliveryAddress().getCity());
+		assertEquals(2, archived.getOrderItems().size());
+		assertEquals(3, archived.getOrderItems().getFirst().getQuantity());
+
+		assertEquals(Set.of(delivered.getId(), cancelled.getId()), Set.copyOf(orderRepository.findArchivedIds(allIds())));
+	}
+
+	@Test
+	void listsArchivedOrdersOfTheCustomerNewestFirst() {
+		archiveAll(10);
+
+		List<OrderResponse> history = orderRepository.findArchivedByCustomer(customerId, OLD_DAY.atStartOfDay(), CUTOFF, 10);
+
+		assertEquals(List.of(cancelled.getId(), delivered.getId()), history.stream().map(OrderResponse::getId).toList());
+		assertEquals(1, orderRepository.findArchivedByCustomer(customerId, OLD_DAY.atStartOfDay(), CUTOFF, 1).size());
+		assertTrue(orderRepository.findArchivedByCustomer(UUID.randomUUID(), OLD_DAY.atStartOfDay(), CUTOFF, 10).isEmpty());
+	}
+
+	@Test
+	void rebuildCountsArchivedAndLiveOrders() {
+		archiveAll(10);
+
+		orderRepository.rebuildRollups(OLD_DAY, OLD_DAY.plusDays(1));
+		List<OrderRollupResponse> rollups = orderRepository.findRollups(OLD_DAY, OLD_DAY.plusDays(1), RollupBucket.DAY, null);
+
+		assertEquals(1, rollups.size());
+		OrderRollupResponse day = rollups.getFirst();
+		assertEquals(3, day.getOrders());
+		assertEquals(37.0, day.getRevenue());
+		assertEquals(1, day.getCancelledOrders());
+		assertEquals(10.0, day.getCancelledRevenue());
+		assertEquals(1, day.getDeliveredOrders());
+	}
+
+	private int archiveAll(int batchSize) {
+		LocalDateTime oldest = orderRepository.findOldestArchivable(FINAL_STATUSES, CUTOFF).orElseThrow();
+		orderRepository.createArchivePartitions(oldest, CUTOFF);
+		int moved = 0;
+		for (int batch; (batch = orderRepository.archiveBatch(FINAL_STATUSES, CUTOFF, batchSize).size()) > 0; ) moved += batch;
+		return moved;
+	}
+
+	private Order save(OrderStatus status, String totalAmount, int items) {
+		Order order = OrderRollupRepositoryTests.order(VehicleType.MOTORCYCLE, totalAmount);
+		order.setCustomerId(customerId);
+		order.setStatus(status);
+		for (int i = 0; i < items; i++) {
+			order.getItems().add(OrderItem.builder()
+				.order(order)
+				.description("Caja " + i)
+				.quantity(3 + i)
+				.weightKg(new BigDecimal("1.50"))
+				.declaredValue(new BigDecimal("12.00"))
+				.build());
+		}
+		return orderRepository.save(order);
+	}
+
+	private void setCreatedAt(Order order, LocalDateTime createdAt) {
+		entityManager.createNativeQuery("UPDATE orders SET created_at = :createdAt WHERE id = :id")
+			.setParameter("createdAt", createdAt)
+			.setParameter("id", order.getId())
+			.executeUpdate();
+	}
+
+	private List<UUID> allIds() {
+		return List.of(delivered.getId(), cancelled.getId(), inProgress.getId(), recent.getId());
+	}
+
+	private long count(String sql) {
+		return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+	}
+}
@@ -0,0 +1,111 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.espe.edu.ec.order_ms.mappers.OrderEventMapper;
+import com.espe.edu.ec.order_ms.model_enums.DeliveryStatus;
+import com.espe.edu.ec.order_ms.model_enums.OrderEventType;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.models.OrderEvent;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EmbeddedPostgresTestConfig.class)
+class OrderEventRepositoryTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.now().withNano(0);
+	private static final Duration LEASE = Duration.ofMinutes(2);
+
+	@Autowired
+	private OrderEventRepository orderEventRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private final UUID orderId = UUID.randomUUID();
+	private final UUID driverId = UUID.randomUUID();
+
+	@Test
+	void claimsInPublicationOrderNotIdOrder() {
+		// Otra instancia reservó un ID menor pero confirmó después
+		OrderEvent released = save(OrderEventType.DRIVER_RELEASED, 2L);
+		OrderEvent assigned = save(OrderEventType.DRIVER_ASSIGNED, 1L);
+
+		assertEquals(List.of(assigned.getId()), claim(NOW, 1));
+		assertEquals(DeliveryStatus.IN_FLIGHT, reload(assigned).getDeliveryStatus());
+		assertEquals(NOW.plus(LEASE), reload(assigned).getNextAttemptAt());
+		// El siguiente del pedido espera a que se confirme la entrega del reclamado
+		assertEquals(List.of(), claim(NOW, 10));
+
+		reload(assigned).setDeliveryStatus(DeliveryStatus.PUBLISHED);
+		orderEventRepository.flush();
+		assertEquals(List.of(released.getId()), claim(NOW, 10));
+	}
+
+	@Test
+	void waitsUntilTheEventHasAPosition() {
+		OrderEvent published = save(OrderEventType.DRIVER_ASSIGNED, 1L);
+		save(OrderEventType.DRIVER_RELEASED, null);
+
+		assertEquals(List.of(published.getId()), claim(NOW, 10));
+	}
+
+	@Test
+	void holdsLaterEventsBehindARetry() {
+		OrderEvent retrying = save(OrderEventType.DRIVER_ASSIGNED, 1L);
+		save(OrderEventType.DRIVER_RELEASED, 2L);
+		OrderEvent otherOrder = orderEventRepository.save(OrderEventMapper.toEvent(UUID.randomUUID(), OrderStatus.CANCELLED, driverId, OrderEventType.ORDER_CANCELLED));
+		setPublishedSeq(otherOrder, 3L);
+		retrying.setNextAttemptAt(NOW.plusMinutes(1));
+		orderEventRepository.saveAndFlush(retrying);
+
+		assertEquals(List.of(otherOrder.getId()), claim(NOW, 10));
+	}
+
+	@Test
+	void reclaimsWhenTheLeaseExpires() {
+		OrderEvent event = save(OrderEventType.DRIVER_ASSIGNED, 1L);
+
+		assertEquals(List.of(event.getId()), claim(NOW, 10));
+		assertEquals(List.of(), claim(NOW.plusSeconds(30), 10));
+		assertEquals(List.of(event.getId()), claim(NOW.plus(LEASE), 10));
+	}
+
+	private List<Long> claim(LocalDateTime now, int limit) {
+		entityManager.clear();
+		orderEventRepository.lockRelay();
+		return orderEventRepository.claimDeliverable(now, now.plus(LEASE), limit).stream().map(OrderEvent::getId).toList();
+	}
+
+	private OrderEvent reload(OrderEvent event) {
+		return orderEventRepository.findById(event.getId()).orElseThrow();
+	}
+
+	private OrderEvent save(OrderEventType eventType, Long publishedSeq) {
+		OrderEvent event = orderEventRepository.saveAndFlush(OrderEventMapper.toEvent(orderId, OrderStatus.CREATED, driverId, eventType));
+		if (publishedSeq != null) setPublishedSeq(event, publishedSeq);
+		return event;
+	}
+
+	private void setPublishedSeq(OrderEvent event, long publishedSeq) {
+		orderEventRepository.flush();
+		event.setPublishedSeq(publishedSeq);
+		entityManager.createNativeQuery("UPDATE order_events SET published_seq = :seq WHERE id = :id")
+			.setParameter("seq", publishedSeq)
+			.setParameter("id", event.getId())
+			.executeUpdate();
+	}
+}
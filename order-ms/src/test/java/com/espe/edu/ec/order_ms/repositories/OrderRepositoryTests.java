@@ -0,0 +1,58 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.espe.edu.ec.order_ms.dtos.OrderStateProjection;
+import com.espe.edu.ec.order_ms.dtos.OrderTransitionProjection;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Order;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EmbeddedPostgresTestConfig.class)
+class OrderRepositoryTests {
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Test
+	void bulkTransitionReturnsTheRowsItChanged() {
+		Order created = orderRepository.saveAndFlush(OrderRollupRepositoryTests.order(VehicleType.MOTORCYCLE, "10.00"));
+		Order pickedUp = orderRepository.saveAndFlush(OrderRollupRepositoryTests.order(VehicleType.MOTORCYCLE, "20.00"));
+		List<UUID> ids = List.of(created.getId(), pickedUp.getId());
+		OrderStateProjection read = orderRepository.findStateById(created.getId()).orElseThrow();
+
+		// Después de la lectura: otra escritura asigna conductor (sube la versión) y otra mueve el segundo pedido
+		UUID driverId = UUID.randomUUID();
+		orderRepository.assignDriverIfStatus(created.getId(), List.of(OrderStatus.CREATED), driverId, "ABC-123", LocalDateTime.now());
+		orderRepository.transitionStatusFrom(List.of(pickedUp.getId()), OrderStatus.CREATED, OrderStatus.PICKED_UP, LocalDateTime.now());
+
+		List<OrderTransitionProjection> changed = orderRepository.transitionStatusFrom(ids, OrderStatus.CREATED, OrderStatus.CANCELLED, LocalDateTime.now());
+		entityManager.clear();
+
+		assertEquals(1, changed.size());
+		assertEquals(created.getId(), changed.getFirst().getId());
+		assertEquals(driverId, changed.getFirst().getDriverId());
+		OrderStateProjection latest = orderRepository.findStateById(created.getId()).orElseThrow();
+		assertEquals(OrderStatus.CANCELLED, latest.status());
+		assertEquals(read.version() + 2, latest.version());
+		assertTrue(orderRepository.transitionStatusFrom(ids, OrderStatus.CREATED, OrderStatus.CANCELLED, LocalDateTime.now()).isEmpty());
+	}
+}
@@ -0,0 +1,137 @@
+package com.espe.edu.ec.order_ms.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.ContextConfiguration;
+
+import com.espe.edu.ec.order_ms.dtos.OrderRollupResponse;
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+import com.espe.edu.ec.order_ms.model_enums.RollupBucket;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Address;
+import com.espe.edu.ec.order_ms.models.Order;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = EmbeddedPostgresTestConfig.class)
+class OrderRollupRepositoryTests {
+
+	private static final LocalDate TODAY = LocalDate.now();
+	private static final LocalDate TOMORROW = TODAY.plusDays(1);
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Order cancelled;
+	private Order delivered;
+
+	@BeforeEach
+	void createOrders() {
+		cancelled = orderRepository.save(order(VehicleType.MOTORCYCLE, "10.00"));
+		delivered = orderRepository.save(order(VehicleType.MOTORCYCLE, "20.00"));
+		Order unspecified = orderRepository.save(order(null, "5.50"));
+		orderRepository.flush();
+		orderRepository.recordCreated(List.of(cancelled.getId(), delivered.getId(), unspecified.getId()));
+
+		setStatus(cancelled, OrderStatus.CANCELLED);
+		setStatus(delivered, OrderStatus.DELIVERED);
+	}
+
+	@Test
+	void readsPendingDeltasBeforeTheyAreFolded() {
+		assertExpectedTotals(orderRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+	}
+
+	@Test
+	void foldingInBatchesKeepsTheTotals() {
+		int folded = 0;
+		for (int batch; (batch = orderRepository.foldDeltas(2)) > 0; ) folded += batch;
+
+		// Dos deltas de creación (uno por tipo de vehículo), uno de cancelación y uno de entrega
+		assertEquals(4, folded);
+		assertEquals(0L, pendingDeltas());
+		assertExpectedTotals(orderRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+	}
+
+	@Test
+	void rebuildMatchesTheIncrementalTotals() {
+		orderRepository.foldDeltas(1);
+		orderRepository.rebuildRollups(TODAY, TOMORROW);
+
+		assertEquals(0L, pendingDeltas());
+		assertExpectedTotals(orderRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+
+		// Una segunda reconstrucción reemplaza la fila del día, no la duplica
+		orderRepository.rebuildRollups(TODAY, TOMORROW);
+		assertExpectedTotals(orderRepository.findRollups(TODAY, TOMORROW, RollupBucket.DAY, null));
+	}
+
+	@Test
+	void groupsByWeekAndFiltersByVehicleType() {
+		orderRepository.foldDeltas(100);
+
+		List<OrderRollupResponse> weekly = orderRepository.findRollups(TODAY, TOMORROW, RollupBucket.WEEK, VehicleType.MOTORCYCLE);
+
+		assertEquals(1, weekly.size());
+		assertEquals(TODAY.with(DayOfWeek.MONDAY), weekly.getFirst().getBucketStart());
+		assertEquals(2, weekly.getFirst().getOrders());
+	}
+
+	private void assertExpectedTotals(List<OrderRollupResponse> rollups) {
+		assertEquals(2, rollups.size());
+
+		OrderRollupResponse motorcycle = rollups.getFirst();
+		assertEquals(VehicleType.MOTORCYCLE, motorcycle.getVehicleType());
+		assertEquals(2, motorcycle.getOrders());
+		assertEquals(30.0, motorcycle.getRevenue());
+		assertEquals(1, motorcycle.getCancelledOrders());
+		assertEquals(10.0, motorcycle.getCancelledRevenue());
+		assertEquals(20.0, motorcycle.getNetRevenue());
+		assertEquals(1, motorcycle.getDeliveredOrders());
+
+		OrderRollupResponse unspecified = rollups.getLast();
+		assertNull(unspecified.getVehicleType());
+		assertEquals(1, unspecified.getOrders());
+		assertEquals(5.5, unspecified.getRevenue());
+		assertEquals(0, unspecified.getCancelledOrders());
+	}
+
+	private void setStatus(Order order, OrderStatus status) {
+		order.setStatus(status);
+		orderRepository.saveAndFlush(order);
+		orderRepository.recordStatusReached(List.of(order.getId()), status);
+	}
+
+	private long pendingDeltas() {
+		return ((Number) entityManager.createNativeQuery("SELECT count(*) FROM order_rollup_deltas").getSingleResult()).longValue();
+	}
+
+	static Order order(VehicleType vehicleType, String totalAmount) {
+		Address address = new Address("Av. Amazonas", "Quito", new Address.Coordinates(-78.48, -0.18), null);
+		return Order.builder()
+			.customerId(UUID.randomUUID())
+			.status(OrderStatus.CREATED)
+			.vehicleType(vehicleType)
+			.totalAmount(new BigDecimal(totalAmount))
+			.pickupAddress(address)
+			.deliveryAddress(address)
+			.build();
+	}
+}
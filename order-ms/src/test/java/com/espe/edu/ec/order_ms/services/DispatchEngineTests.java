@@ -0,0 +1,143 @@
+package com.espe.edu.ec.order_ms.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.espe.edu.ec.order_ms.dtos.DispatchDriverRequest;
+import com.espe.edu.ec.order_ms.model_enums.DispatchMode;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Address;
+import com.espe.edu.ec.order_ms.models.Order;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
+
+class DispatchEngineTests {
+
+	private static final double MAX_DISTANCE_KM = 8;
+
+	private final DispatchEngine dispatchEngine = new DispatchEngine(2);
+
+	@AfterEach
+	void tearDown() {
+		dispatchEngine.shutdown();
+	}
+
+	@Test
+	void optimalMatchesBruteForce() {
+		Random random = new Random(7);
+		for (int round = 0; round < 200; round++) {
+			List<DispatchDriverRequest> drivers = drivers(random, 1 + random.nextInt(5));
+			List<Order> orders = orders(random, 1 + random.nextInt(5));
+
+			DispatchEngine.Plan plan = dispatchEngine.plan(drivers, orders, MAX_DISTANCE_KM, DispatchMode.OPTIMAL, Duration.ofSeconds(5));
+			assertEquals(DispatchMode.OPTIMAL, plan.mode());
+			assertValid(plan, drivers, orders);
+
+			long[] best = bruteForce(drivers, orders, 0, new boolean[orders.size()]);
+			assertEquals(best[0], plan.matches().size(), "asignaciones");
+			assertEquals(best[1], plan.matches().stream().mapToLong(match -> Math.round(match.distanceKm() * 1000)).sum(), "metros");
+		}
+	}
+
+	@Test
+	void greedyOnlyPairsFeasibleOrders() {
+		Random random = new Random(11);
+		List<DispatchDriverRequest> drivers = drivers(random, 40);
+		List<Order> orders = orders(random, 120);
+
+		DispatchEngine.Plan plan = dispatchEngine.plan(drivers, orders, MAX_DISTANCE_KM, DispatchMode.GREEDY, Duration.ofSeconds(5));
+
+		assertEquals(DispatchMode.GREEDY, plan.mode());
+		assertFalse(plan.matches().isEmpty());
+		assertValid(plan, drivers, orders);
+	}
+
+	@Test
+	void optimalFallsBackToGreedyWhenBudgetIsExhausted() {
+		Random random = new Random(3);
+		DispatchEngine.Plan plan = dispatchEngine.plan(drivers(random, 20), orders(random, 50), MAX_DISTANCE_KM,
+				DispatchMode.OPTIMAL, Duration.ZERO);
+
+		assertEquals(DispatchMode.GREEDY, plan.mode());
+		assertTrue(plan.timedOut());
+	}
+
+	private static void assertValid(DispatchEngine.Plan plan, List<DispatchDriverRequest> drivers, List<Order> orders) {
+		Set<Integer> usedDrivers = new HashSet<>();
+		Set<Integer> usedOrders = new HashSet<>();
+		for (DispatchEngine.Match match : plan.matches()) {
+			assertTrue(usedDrivers.add(match.driverIndex()), "conductor repetido");
+			assertTrue(usedOrders.add(match.orderIndex()), "pedido repetido");
+			Order order = orders.get(match.orderIndex());
+			DispatchDriverRequest driver = drivers.get(match.driverIndex());
+			assertTrue(order.getVehicleType() == null || order.getVehicleType() == driver.getVehicleType());
+			assertTrue(match.distanceKm() <= MAX_DISTANCE_KM);
+		}
+	}
+
+	// Devuelve {máximo de asignaciones, mínimo de metros para ese máximo}
+	private static long[] bruteForce(List<DispatchDriverRequest> drivers, List<Order> orders, int driver, boolean[] taken) {
+		if (driver == drivers.size()) return new long[] {0, 0};
+
+		long[] best = bruteForce(drivers, orders, driver + 1, taken);
+		for (int j = 0; j < orders.size(); j++) {
+			long meters = meters(drivers.get(driver), orders.get(j));
+			if (taken[j] || meters < 0) continue;
+			taken[j] = true;
+			long[] rest = bruteForce(drivers, orders, driver + 1, taken);
+			taken[j] = false;
+			long count = rest[0] + 1;
+			long total = rest[1] + meters;
+			if (count > best[0] || (count == best[0] && total < best[1])) best = new long[] {count, total};
+		}
+		return best;
+	}
+
+	private static long meters(DispatchDriverRequest driver, Order order) {
+		if (order.getVehicleType() != null && order.getVehicleType() != driver.getVehicleType()) return -1;
+		long meters = Math.round(OrderUtils.calculateDistance(new Address(null, null, driver.getLocation(), null), order.getPickupAddress()) * 1000);
+		return meters <= MAX_DISTANCE_KM * 1000 ? meters : -1;
+	}
+
+	private static List<DispatchDriverRequest> drivers(Random random, int count) {
+		List<DispatchDriverRequest> drivers = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			drivers.add(DispatchDriverRequest.builder()
+				.driverId(UUID.randomUUID())
+				.vehicleId("V-" + i)
+				.vehicleType(VehicleType.values()[random.nextInt(2)])
+				.location(coordinates(random))
+				.build());
+		}
+		return drivers;
+	}
+
+	private static List<Order> orders(Random random, int count) {
+		List<Order> orders = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			orders.add(Order.builder()
+				.id(UUID.randomUUID())
+				.vehicleType(random.nextInt(4) == 0 ? null : VehicleType.values()[random.nextInt(2)])
+				.pickupAddress(new Address("Calle " + i, "Quito", coordinates(random), null))
+				.build());
+		}
+		return orders;
+	}
+
+	// Puntos dentro de ~15 km alrededor de Quito
+	private static Address.Coordinates coordinates(Random random) {
+		return new Address.Coordinates(-78.50 + (random.nextDouble() - 0.5) * 0.25, -0.20 + (random.nextDouble() - 0.5) * 0.25);
+	}
+
+}
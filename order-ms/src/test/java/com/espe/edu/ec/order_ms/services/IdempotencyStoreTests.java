@@ -0,0 +1,106 @@
+package com.espe.edu.ec.order_ms.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.espe.edu.ec.order_ms.exceptions.IdempotencyConflictException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotencyStoreTests {
+
+	private final IdempotencyStore<String> store = new IdempotencyStore<>("test", new SimpleMeterRegistry(), 2, Duration.ofMinutes(5));
+
+	@AfterEach
+	void clearTransaction() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	void replaysTheCommittedResponse() {
+		begin();
+		assertTrue(store.begin("k", "h1").isEmpty());
+		store.complete("k", "h1", "pedido-1");
+		end(TransactionSynchronization.STATUS_COMMITTED);
+
+		begin();
+		assertEquals(Optional.of("pedido-1"), store.begin("k", "h1"));
+		end(TransactionSynchronization.STATUS_COMMITTED);
+	}
+
+	@Test
+	void rejectsConcurrentAndMismatchedRequests() {
+		begin();
+		store.begin("k", "h1");
+		assertThrows(IdempotencyConflictException.class, () -> store.begin("k", "h1"));
+		store.complete("k", "h1", "pedido-1");
+		end(TransactionSynchronization.STATUS_COMMITTED);
+
+		begin();
+		assertThrows(IdempotencyConflictException.class, () -> store.begin("k", "h2"));
+	}
+
+	@Test
+	void releasesTheKeyOnRollback() {
+		begin();
+		store.begin("k", "h1");
+		end(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		begin();
+		assertTrue(store.begin("k", "h1").isEmpty());
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedKey() {
+		for (String key : new String[] {"a", "b", "c"}) {
+			begin();
+			store.begin(key, "h1");
+			store.complete(key, "h1", key);
+			end(TransactionSynchronization.STATUS_COMMITTED);
+		}
+
+		begin();
+		assertTrue(store.begin("a", "h1").isEmpty());
+		assertEquals(Optional.of("c"), store.begin("c", "h1"));
+	}
+
+	@Test
+	void fingerprintsTheCanonicalBody() {
+		String fingerprint = IdempotencyStore.fingerprint(Map.of("b", 2, "a", List.of(1, 2)));
+
+		assertEquals(64, fingerprint.length());
+		assertEquals(fingerprint, IdempotencyStore.fingerprint(new TreeMap<>(Map.of("a", List.of(1, 2), "b", 2))));
+		assertNotEquals(fingerprint, IdempotencyStore.fingerprint(Map.of("b", 2, "a", List.of(2, 1))));
+	}
+
+	@Test
+	void requiresATransaction() {
+		assertThrows(IllegalStateException.class, () -> store.begin("k", "h1"));
+	}
+
+	private static void begin() {
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	private static void end(int status) {
+		var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		for (TransactionSynchronization synchronization : synchronizations) {
+			if (status == TransactionSynchronization.STATUS_COMMITTED) synchronization.afterCommit();
+			synchronization.afterCompletion(status);
+		}
+	}
+}
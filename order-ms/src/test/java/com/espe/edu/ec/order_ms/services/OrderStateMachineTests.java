@@ -0,0 +1,52 @@
+package com.espe.edu.ec.order_ms.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+
+import com.espe.edu.ec.order_ms.model_enums.OrderStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrderStateMachineTests {
+
+	@Test
+	void followsTheDeliveryLifecycle() {
+		assertTrue(OrderStateMachine.canTransition(OrderStatus.CREATED, OrderStatus.PICKED_UP));
+		assertTrue(OrderStateMachine.canTransition(OrderStatus.PICKED_UP, OrderStatus.IN_ROUTE));
+		assertTrue(OrderStateMachine.canTransition(OrderStatus.IN_ROUTE, OrderStatus.DELIVERED));
+		assertTrue(OrderStateMachine.canTransition(OrderStatus.IN_ROUTE, OrderStatus.CANCELLATION_IN_PROGRESS));
+		assertTrue(OrderStateMachine.canTransition(OrderStatus.CANCELLATION_IN_PROGRESS, OrderStatus.CANCELLED));
+
+		assertFalse(OrderStateMachine.canTransition(OrderStatus.CREATED, OrderStatus.DELIVERED));
+		assertFalse(OrderStateMachine.canTransition(OrderStatus.IN_ROUTE, OrderStatus.CANCELLED));
+		assertFalse(OrderStateMachine.canTransition(OrderStatus.CREATED, OrderStatus.CREATED));
+	}
+
+	@Test
+	void finalStatusesHaveNoTargets() {
+		for (OrderStatus status : EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.CANCELLED_BY_DELIVERY)) {
+			assertTrue(OrderStateMachine.isFinal(status));
+			for (OrderStatus target : OrderStatus.values()) {
+				assertFalse(OrderStateMachine.canTransition(status, target));
+			}
+		}
+	}
+
+	@Test
+	void registersMetersPerTransition() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		OrderStateMachine stateMachine = new OrderStateMachine(registry);
+
+		stateMachine.recordApplied(OrderStatus.PICKED_UP, OrderStatus.IN_ROUTE, 1_000_000, 3);
+		stateMachine.recordRejected(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+		assertEquals(3, registry.get("orders.status.transitions").tag("from", "PICKED_UP").tag("to", "IN_ROUTE").timer().count());
+		assertEquals(1.0, registry.get("orders.status.transitions.rejected").tag("from", "DELIVERED").tag("to", "CANCELLED").counter().count());
+	}
+
+}
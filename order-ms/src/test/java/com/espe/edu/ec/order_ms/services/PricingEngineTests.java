@@ -0,0 +1,69 @@
+package com.espe.edu.ec.order_ms.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.espe.edu.ec.order_ms.dtos.PriceQuote;
+import com.espe.edu.ec.order_ms.dtos.TariffRates;
+import com.espe.edu.ec.order_ms.mappers.TariffMapper;
+import com.espe.edu.ec.order_ms.model_enums.VehicleType;
+import com.espe.edu.ec.order_ms.models.Tariff;
+import com.espe.edu.ec.order_ms.utils.OrderUtils;
+
+class PricingEngineTests {
+
+	private final PricingEngine pricingEngine = new PricingEngine(false);
+
+	@Test
+	void matchesLegacyBigDecimalPricing() {
+		Random random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			// Mezcla de distancias arbitrarias y empates exactos en la tercera decimal (x.xx5)
+			double distance = i % 2 == 0
+				? random.nextDouble() * OrderUtils.MAX_COVERAGE
+				: random.nextInt(5_000) / 100.0 + 0.005;
+			Tariff tariff = tariff(random.nextInt(100_000), random.nextInt(100_000), random.nextInt(6));
+
+			assertSameAsLegacy(distance, tariff);
+		}
+	}
+
+	@Test
+	void matchesLegacyRoundingOnBinaryTies() {
+		Tariff tariff = tariff(25_000, 7_500, 3);
+		for (double distance : new double[] {0.0, 1.005, 1.015, 2.675, 2.9999999999999996, 3.0, 10.125, 49.995}) {
+			assertSameAsLegacy(distance, tariff);
+		}
+	}
+
+	private void assertSameAsLegacy(double distance, Tariff tariff) {
+		BigDecimal legacyDistance = BigDecimal.valueOf(distance).setScale(2, RoundingMode.HALF_UP);
+		BigDecimal legacyTripFee = OrderUtils.calculateTripFee(tariff, legacyDistance);
+		BigDecimal legacyTotal = legacyTripFee.add(tariff.getBaseCost());
+
+		TariffRates rates = TariffMapper.entityToRates(tariff);
+		PriceQuote quote = pricingEngine.quote(distance, rates);
+
+		assertEquals(0, legacyDistance.compareTo(quote.toDistanceKm()), () -> "distancia " + distance);
+		assertEquals(0, legacyTripFee.compareTo(quote.toTripFee()), () -> "tripFee " + distance);
+		assertEquals(0, legacyTotal.compareTo(quote.toTotalAmount()), () -> "total " + distance);
+		assertEquals(legacyTotal.doubleValue(), quote.toTotalAmount().doubleValue(), () -> "total (double) " + distance);
+	}
+
+	private static Tariff tariff(long baseCostE4, long costPerKmE4, int minDistanceKm) {
+		return Tariff.builder()
+			.id(1L)
+			.zoneId("UIO")
+			.vehicleType(VehicleType.MOTORCYCLE)
+			.baseCost(BigDecimal.valueOf(baseCostE4, 4))
+			.costPerKm(BigDecimal.valueOf(costPerKmE4, 4))
+			.minDistanceKm(minDistanceKm)
+			.build();
+	}
+
+}